@@ -0,0 +1,29 @@
+package com.habibian.tweeterclone.cache;
+
+import com.habibian.tweeterclone.util.TransactionUtil;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts single entities from the Hibernate second-level cache after writes that bypass Hibernate.
+ * <p>
+ * An entity is evicted right away and, within a transaction, once more after commit, so that a
+ * concurrent read between the write and the commit cannot leave the old state cached.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityCacheEvictor {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Evicts an entity from the second-level cache.
+     *
+     * @param entityClass The class of the entity.
+     * @param id          The ID of the entity.
+     */
+    public void evict(Class<?> entityClass, Object id) {
+        TransactionUtil.runNowAndAfterCommit(() -> entityManagerFactory.getCache().evict(entityClass, id));
+    }
+}
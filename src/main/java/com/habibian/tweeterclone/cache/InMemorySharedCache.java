@@ -0,0 +1,89 @@
+package com.habibian.tweeterclone.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link SharedCache} kept in the memory of this instance, for a single instance and for tests.
+ */
+public class InMemorySharedCache implements SharedCache {
+
+    private final Cache<String, Entry> entries;
+
+    /**
+     * Constructs an InMemorySharedCache holding up to the given number of entries.
+     *
+     * @param maxSize The maximum number of entries.
+     */
+    public InMemorySharedCache(long maxSize) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new EntryExpiry())
+                .build();
+    }
+
+    @Override
+    public String get(String key) {
+        Entry entry = entries.getIfPresent(key);
+        return entry == null ? null : entry.value();
+    }
+
+    @Override
+    public Map<String, String> getAll(Collection<String> keys) {
+        Map<String, String> values = new HashMap<>();
+        entries.getAllPresent(keys).forEach((key, entry) -> values.put(key, entry.value()));
+
+        return values;
+    }
+
+    @Override
+    public void put(String key, String value, Duration ttl) {
+        entries.put(key, new Entry(value, ttl.toNanos()));
+    }
+
+    @Override
+    public void evict(String key) {
+        entries.invalidate(key);
+    }
+
+    @Override
+    public long increment(String key) {
+        Entry entry = entries.asMap().compute(key, (k, current) -> new Entry(
+                String.valueOf(current == null ? 1 : Long.parseLong(current.value()) + 1), Long.MAX_VALUE));
+
+        return Long.parseLong(entry.value());
+    }
+
+    /**
+     * A cached value together with its time to live.
+     */
+    private record Entry(String value, long ttlNanos) {
+    }
+
+    /**
+     * Expires each entry after its own time to live, counted from its last write.
+     */
+    private static class EntryExpiry implements Expiry<String, Entry> {
+
+        @Override
+        public long expireAfterCreate(String key, Entry entry, long currentTime) {
+            return entry.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+            return entry.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.habibian.tweeterclone.cache;
+
+import io.lettuce.core.KeyValue;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisException;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link SharedCache} stored in a Redis server, or any server speaking the Redis protocol.
+ * <p>
+ * All keys are prefixed with {@code tweeter:}. Commands run on one thread-safe connection that is
+ * shared by all requests.
+ */
+@Slf4j
+public class RedisSharedCache implements SharedCache, AutoCloseable {
+
+    private static final String KEY_PREFIX = "tweeter:";
+
+    private final RedisClient client;
+    private final StatefulRedisConnection<String, String> connection;
+
+    /**
+     * Constructs a RedisSharedCache connected to the given server.
+     *
+     * @param uri The URI of the Redis server, such as {@code redis://localhost:6379}.
+     */
+    public RedisSharedCache(String uri) {
+        this.client = RedisClient.create(uri);
+        this.connection = client.connect();
+    }
+
+    @Override
+    public String get(String key) {
+        try {
+            return commands().get(KEY_PREFIX + key);
+        } catch (RedisException e) {
+            log.warn("Shared cache read failed", e);
+            return null;
+        }
+    }
+
+    @Override
+    public Map<String, String> getAll(Collection<String> keys) {
+        Map<String, String> values = new HashMap<>();
+        if (keys.isEmpty()) {
+            return values;
+        }
+
+        try {
+            String[] prefixedKeys = keys.stream().map(key -> KEY_PREFIX + key).toArray(String[]::new);
+            for (KeyValue<String, String> keyValue : commands().mget(prefixedKeys)) {
+                if (keyValue.hasValue()) {
+                    values.put(keyValue.getKey().substring(KEY_PREFIX.length()), keyValue.getValue());
+                }
+            }
+        } catch (RedisException e) {
+            log.warn("Shared cache read failed", e);
+        }
+
+        return values;
+    }
+
+    @Override
+    public void put(String key, String value, Duration ttl) {
+        try {
+            commands().set(KEY_PREFIX + key, value, SetArgs.Builder.px(ttl.toMillis()));
+        } catch (RedisException e) {
+            log.warn("Shared cache write failed", e);
+        }
+    }
+
+    @Override
+    public void evict(String key) {
+        try {
+            commands().del(KEY_PREFIX + key);
+        } catch (RedisException e) {
+            log.warn("Shared cache eviction of {} failed", key, e);
+        }
+    }
+
+    @Override
+    public long increment(String key) {
+        try {
+            return commands().incr(KEY_PREFIX + key);
+        } catch (RedisException e) {
+            log.warn("Shared cache increment of {} failed", key, e);
+            return 0;
+        }
+    }
+
+    /**
+     * Closes the connection to the Redis server.
+     */
+    @Override
+    public void close() {
+        connection.close();
+        client.shutdown();
+    }
+
+    /**
+     * @return The synchronous commands of the shared connection.
+     */
+    private RedisCommands<String, String> commands() {
+        return connection.sync();
+    }
+}
@@ -0,0 +1,54 @@
+package com.habibian.tweeterclone.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * String key-value cache shared by all instances of the application.
+ * <p>
+ * Implementations treat failures of the backing store as cache misses, so a cache outage slows
+ * requests down instead of failing them.
+ */
+public interface SharedCache {
+
+    /**
+     * Retrieves a cached value.
+     *
+     * @param key The key.
+     * @return The value, or null if the key is not cached.
+     */
+    String get(String key);
+
+    /**
+     * Retrieves several cached values at once.
+     *
+     * @param keys The keys.
+     * @return The cached values by key; keys that are not cached are absent.
+     */
+    Map<String, String> getAll(Collection<String> keys);
+
+    /**
+     * Caches a value.
+     *
+     * @param key   The key.
+     * @param value The value.
+     * @param ttl   How long the value stays cached.
+     */
+    void put(String key, String value, Duration ttl);
+
+    /**
+     * Removes a cached value.
+     *
+     * @param key The key.
+     */
+    void evict(String key);
+
+    /**
+     * Atomically increments a counter that does not expire, starting from zero.
+     *
+     * @param key The key of the counter.
+     * @return The incremented value.
+     */
+    long increment(String key);
+}
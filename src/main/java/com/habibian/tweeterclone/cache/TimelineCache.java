@@ -0,0 +1,169 @@
+package com.habibian.tweeterclone.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.habibian.tweeterclone.dto.CursorPageDTO;
+import com.habibian.tweeterclone.dto.TweetDTO;
+import com.habibian.tweeterclone.dto.UserDTO;
+import com.habibian.tweeterclone.util.TransactionUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Shared cache of rendered home timeline pages, keyed by owner, cursor and page size.
+ * <p>
+ * The pages of a user are invalidated together by bumping a per-user generation that is part of their keys,
+ * whenever the user does something that changes their own timeline: tweeting, retweeting, liking or
+ * following. Tweets of followed users show up once the cached page expires. Counters and author summaries
+ * are not trusted from the cached page; they are overlaid from {@link TweetCounterCache} and
+ * {@link UserSummaryCache}, which are evicted on every write.
+ */
+@Component
+@RequiredArgsConstructor
+public class TimelineCache {
+
+    private static final String PAGE_KEY_PREFIX = "timeline:home:";
+    private static final String GENERATION_KEY_PREFIX = "timeline:home-generation:";
+    private static final TypeReference<CursorPageDTO<TweetDTO>> PAGE_TYPE = new TypeReference<>() {
+    };
+
+    private final SharedCache sharedCache;
+    private final TweetCounterCache tweetCounterCache;
+    private final UserSummaryCache userSummaryCache;
+    private final ObjectMapper objectMapper;
+
+    @Value("${tweeter.cache.timeline-ttl:30s}")
+    private Duration ttl;
+
+    /**
+     * Retrieves a home timeline page from the cache, or renders and caches it if it is not cached.
+     * Either way, the counters and author summaries of the page are the shared ones, which may be newer
+     * than this instance's entities.
+     *
+     * @param userId   The ID of the owner of the timeline.
+     * @param cursor   The cursor of the page, or null for the first page.
+     * @param size     The page size.
+     * @param renderer Renders the page on a cache miss.
+     * @param <E>      The type of the exception thrown by the renderer.
+     * @return The page.
+     * @throws E If the page cannot be rendered.
+     */
+    public <E extends Exception> CursorPageDTO<TweetDTO> getHomePage(Long userId, String cursor, int size,
+                                                                     PageRenderer<E> renderer) throws E {
+        String key = pageKey(userId, cursor, size);
+
+        CursorPageDTO<TweetDTO> page = read(sharedCache.get(key));
+        if (page == null) {
+            page = renderer.render();
+            refresh(page.getItems());
+            write(key, page);
+        } else {
+            refresh(page.getItems());
+        }
+
+        return page;
+    }
+
+    /**
+     * Invalidates all cached home timeline pages of a user, right away and again after the current
+     * transaction commits.
+     *
+     * @param userId The ID of the owner of the timeline.
+     */
+    public void invalidateHome(Long userId) {
+        TransactionUtil.runNowAndAfterCommit(() -> sharedCache.increment(GENERATION_KEY_PREFIX + userId));
+    }
+
+    /**
+     * Overlays the shared counters and author summaries onto rendered tweets.
+     *
+     * @param tweets The rendered tweets.
+     */
+    private void refresh(List<TweetDTO> tweets) {
+        Map<Long, TweetCounterCache.TweetCounters> counters =
+                tweetCounterCache.getAll(tweets.stream().map(TweetDTO::getId).toList());
+        Map<Long, UserDTO> authors = userSummaryCache.getAll(
+                tweets.stream().map(tweet -> tweet.getUser().getId()).distinct().toList());
+
+        for (TweetDTO tweet : tweets) {
+            TweetCounterCache.TweetCounters tweetCounters = counters.get(tweet.getId());
+            if (tweetCounters != null) {
+                tweet.setTotalLikes(tweetCounters.likeCount());
+                tweet.setTotalReplies(tweetCounters.replyCount());
+                tweet.setTotalRetweets(tweetCounters.retweetCount());
+            }
+
+            UserDTO author = authors.get(tweet.getUser().getId());
+            if (author != null) {
+                tweet.setUser(author);
+            }
+        }
+    }
+
+    /**
+     * Deserializes a cached page.
+     *
+     * @param json The cached JSON, or null.
+     * @return The page, or null if nothing usable was cached.
+     */
+    private CursorPageDTO<TweetDTO> read(String json) {
+        if (json == null) {
+            return null;
+        }
+
+        try {
+            return objectMapper.readValue(json, PAGE_TYPE);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Caches a page.
+     *
+     * @param key  The cache key.
+     * @param page The page.
+     */
+    private void write(String key, CursorPageDTO<TweetDTO> page) {
+        try {
+            sharedCache.put(key, objectMapper.writeValueAsString(page), ttl);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize timeline page", e);
+        }
+    }
+
+    /**
+     * Builds the key of a page in the owner's current generation.
+     *
+     * @param userId The ID of the owner of the timeline.
+     * @param cursor The cursor of the page, or null for the first page.
+     * @param size   The page size.
+     * @return The cache key of the page.
+     */
+    private String pageKey(Long userId, String cursor, int size) {
+        String generation = Objects.requireNonNullElse(sharedCache.get(GENERATION_KEY_PREFIX + userId), "0");
+        return PAGE_KEY_PREFIX + userId + ":" + generation + ":" + Objects.requireNonNullElse(cursor, "") + ":" + size;
+    }
+
+    /**
+     * Renders a timeline page.
+     *
+     * @param <E> The type of the exception thrown when the page cannot be rendered.
+     */
+    @FunctionalInterface
+    public interface PageRenderer<E extends Exception> {
+
+        /**
+         * @return The rendered page.
+         * @throws E If the page cannot be rendered.
+         */
+        CursorPageDTO<TweetDTO> render() throws E;
+    }
+}
@@ -0,0 +1,108 @@
+package com.habibian.tweeterclone.cache;
+
+import com.habibian.tweeterclone.repository.TweetRepository;
+import com.habibian.tweeterclone.repository.projection.TweetCountersView;
+import com.habibian.tweeterclone.util.TransactionUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Shared cache of the like, reply and retweet counters of tweets, keyed by tweet ID.
+ * <p>
+ * Counters change far more often than the rest of a tweet, so they are cached apart from rendered pages
+ * and evicted by every counter update, on whichever instance it happens.
+ */
+@Component
+@RequiredArgsConstructor
+public class TweetCounterCache {
+
+    private static final String KEY_PREFIX = "tweet:counters:";
+
+    private final SharedCache sharedCache;
+    private final TweetRepository tweetRepository;
+
+    @Value("${tweeter.cache.counters-ttl:5m}")
+    private Duration ttl;
+
+    /**
+     * Retrieves the counters of several tweets, loading the ones that are not cached with one query.
+     *
+     * @param tweetIds The IDs of the tweets.
+     * @return The counters by tweet ID; tweets that do not exist are absent.
+     */
+    public Map<Long, TweetCounters> getAll(Collection<Long> tweetIds) {
+        Map<Long, TweetCounters> counters = new HashMap<>();
+        if (tweetIds.isEmpty()) {
+            return counters;
+        }
+
+        Map<String, String> cached = sharedCache.getAll(tweetIds.stream().map(TweetCounterCache::key).toList());
+
+        List<Long> missing = new ArrayList<>();
+        for (Long tweetId : tweetIds) {
+            String value = cached.get(key(tweetId));
+            if (value == null) {
+                missing.add(tweetId);
+            } else {
+                counters.put(tweetId, TweetCounters.decode(value));
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            for (TweetCountersView view : tweetRepository.findCountersByIdIn(missing)) {
+                TweetCounters loaded = new TweetCounters(view.getLikeCount(), view.getReplyCount(), view.getRetweetCount());
+                sharedCache.put(key(view.getId()), loaded.encode(), ttl);
+                counters.put(view.getId(), loaded);
+            }
+        }
+
+        return counters;
+    }
+
+    /**
+     * Evicts the counters of a tweet, right away and again after the current transaction commits.
+     *
+     * @param tweetId The ID of the tweet.
+     */
+    public void evict(Long tweetId) {
+        TransactionUtil.runNowAndAfterCommit(() -> sharedCache.evict(key(tweetId)));
+    }
+
+    /**
+     * @param tweetId The ID of the tweet.
+     * @return The cache key of the counters of the tweet.
+     */
+    private static String key(Long tweetId) {
+        return KEY_PREFIX + tweetId;
+    }
+
+    /**
+     * The counters of a tweet.
+     *
+     * @param likeCount    The number of likes.
+     * @param replyCount   The number of replies.
+     * @param retweetCount The number of retweets.
+     */
+    public record TweetCounters(int likeCount, int replyCount, int retweetCount) {
+
+        /**
+         * @return The counters as a comma-separated string.
+         */
+        String encode() {
+            return likeCount + "," + replyCount + "," + retweetCount;
+        }
+
+        /**
+         * @param value Counters encoded by {@link #encode()}.
+         * @return The decoded counters.
+         */
+        static TweetCounters decode(String value) {
+            String[] parts = value.split(",");
+            return new TweetCounters(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+        }
+    }
+}
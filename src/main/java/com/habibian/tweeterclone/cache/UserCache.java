@@ -0,0 +1,64 @@
+package com.habibian.tweeterclone.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.habibian.tweeterclone.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Bounded in-memory cache of authenticated users, keyed by user ID.
+ * <p>
+ * Entries expire shortly after being loaded, so a user changed on another instance is seen again
+ * within the TTL; changes made through this instance evict the entry right away. A cached user is
+ * shared by all concurrent requests and must never be modified: change the stored user and evict it.
+ */
+@Component
+public class UserCache {
+
+    private final Cache<Long, User> users;
+
+    /**
+     * Constructs a UserCache with the configured size and time to live.
+     *
+     * @param maxSize The maximum number of cached users.
+     * @param ttl     How long a user stays cached after being loaded.
+     */
+    public UserCache(@Value("${tweeter.user-cache.max-size:10000}") long maxSize,
+                     @Value("${tweeter.user-cache.ttl:30s}") Duration ttl) {
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Retrieves a cached user.
+     *
+     * @param userId The ID of the user.
+     * @return The cached user, or null if the user is not cached.
+     */
+    public User get(Long userId) {
+        return users.getIfPresent(userId);
+    }
+
+    /**
+     * Caches a user.
+     *
+     * @param user The user to cache.
+     */
+    public void put(User user) {
+        users.put(user.getId(), user);
+    }
+
+    /**
+     * Removes a user from the cache.
+     *
+     * @param userId The ID of the user.
+     */
+    public void evict(Long userId) {
+        users.invalidate(userId);
+    }
+}
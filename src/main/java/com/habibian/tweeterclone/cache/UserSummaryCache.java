@@ -0,0 +1,116 @@
+package com.habibian.tweeterclone.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.habibian.tweeterclone.dto.UserDTO;
+import com.habibian.tweeterclone.dto.mapper.UserDtoMapper;
+import com.habibian.tweeterclone.repository.UserRepository;
+import com.habibian.tweeterclone.repository.projection.UserSummaryView;
+import com.habibian.tweeterclone.util.TransactionUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Shared cache of summary UserDTOs, the fields displayed next to a user's content, keyed by user ID.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserSummaryCache {
+
+    private static final String KEY_PREFIX = "user:summary:";
+
+    private final SharedCache sharedCache;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${tweeter.cache.user-summaries-ttl:10m}")
+    private Duration ttl;
+
+    /**
+     * Retrieves the summaries of several users, loading the ones that are not cached with one query.
+     *
+     * @param userIds The IDs of the users.
+     * @return The summary UserDTOs by user ID; users that do not exist are absent.
+     */
+    public Map<Long, UserDTO> getAll(Collection<Long> userIds) {
+        Map<Long, UserDTO> summaries = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return summaries;
+        }
+
+        Map<String, String> cached = sharedCache.getAll(userIds.stream().map(UserSummaryCache::key).toList());
+
+        List<Long> missing = new ArrayList<>();
+        for (Long userId : userIds) {
+            UserDTO summary = read(cached.get(key(userId)));
+            if (summary == null) {
+                missing.add(userId);
+            } else {
+                summaries.put(userId, summary);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            for (UserSummaryView view : userRepository.findSummariesByIdIn(missing)) {
+                UserDTO summary = UserDtoMapper.toUserSummaryDto(view);
+                write(key(view.getId()), summary);
+                summaries.put(view.getId(), summary);
+            }
+        }
+
+        return summaries;
+    }
+
+    /**
+     * Evicts the summary of a user, right away and again after the current transaction commits.
+     *
+     * @param userId The ID of the user.
+     */
+    public void evict(Long userId) {
+        TransactionUtil.runNowAndAfterCommit(() -> sharedCache.evict(key(userId)));
+    }
+
+    /**
+     * @param userId The ID of the user.
+     * @return The cache key of the summary of the user.
+     */
+    private static String key(Long userId) {
+        return KEY_PREFIX + userId;
+    }
+
+    /**
+     * Deserializes a cached summary.
+     *
+     * @param json The cached JSON, or null.
+     * @return The summary, or null if nothing usable was cached.
+     */
+    private UserDTO read(String json) {
+        if (json == null) {
+            return null;
+        }
+
+        try {
+            return objectMapper.readValue(json, UserDTO.class);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Caches a summary.
+     *
+     * @param key     The cache key.
+     * @param summary The summary.
+     */
+    private void write(String key, UserDTO summary) {
+        try {
+            sharedCache.put(key, objectMapper.writeValueAsString(summary), ttl);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize user summary", e);
+        }
+    }
+}
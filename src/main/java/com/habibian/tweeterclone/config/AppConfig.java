@@ -27,17 +27,20 @@ public class AppConfig {
      * Configures the security settings for the application, including session management, authorization rules,
      * and CORS configuration.
      *
-     * @param http The HttpSecurity object to configure security settings.
+     * @param http        The HttpSecurity object to configure security settings.
+     * @param jwtProvider The JwtProvider used to validate JWT tokens.
      * @return A SecurityFilterChain configured with the specified settings.
      * @throws Exception If an error occurs during configuration.
      */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtProvider jwtProvider) throws Exception {
         http.sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 .and()
                 .authorizeHttpRequests(Authorize -> Authorize.requestMatchers("/api/**").authenticated()
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").authenticated()
                         .anyRequest().permitAll()
-                ).addFilterBefore(new JwtTokenValidator(), BasicAuthenticationFilter.class)
+                ).addFilterBefore(new JwtTokenValidator(jwtProvider), BasicAuthenticationFilter.class)
                 .csrf().disable()
                 .cors().configurationSource(corsConfigurationSource()).and()
                 .httpBasic().and().formLogin();
@@ -0,0 +1,84 @@
+package com.habibian.tweeterclone.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.habibian.tweeterclone.model.Tweet;
+import com.habibian.tweeterclone.model.User;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * Configuration of the Hibernate second-level cache of entities.
+ * <p>
+ * The cache regions live in an in-process Caffeine JCache manager, sized by configuration.
+ * Hibernate is handed that manager and fails to start if an entity names a region that was not created here.
+ */
+@Configuration
+public class EntityCacheConfig {
+
+    /**
+     * Creates the JCache manager holding the entity cache regions.
+     *
+     * @param usersMaxSize  The maximum number of cached users.
+     * @param tweetsMaxSize The maximum number of cached tweets.
+     * @param ttl           How long an entity stays cached after being loaded or updated.
+     * @return The cache manager.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(@Value("${tweeter.entity-cache.users.max-size:10000}") long usersMaxSize,
+                                           @Value("${tweeter.entity-cache.tweets.max-size:50000}") long tweetsMaxSize,
+                                           @Value("${tweeter.entity-cache.ttl:10m}") Duration ttl) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager();
+
+        createRegion(cacheManager, User.CACHE_REGION, usersMaxSize, ttl);
+        createRegion(cacheManager, Tweet.CACHE_REGION, tweetsMaxSize, ttl);
+
+        return cacheManager;
+    }
+
+    /**
+     * Hands the entity cache manager to Hibernate.
+     *
+     * @param entityCacheManager The cache manager holding the entity cache regions.
+     * @return The customizer of the Hibernate properties.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.FAIL.getExternalRepresentation());
+        };
+    }
+
+    /**
+     * Creates a bounded cache region, unless it already exists.
+     *
+     * @param cacheManager The cache manager.
+     * @param region       The name of the region.
+     * @param maxSize      The maximum number of entries.
+     * @param ttl          How long an entry stays cached after being written.
+     */
+    private void createRegion(CacheManager cacheManager, String region, long maxSize, Duration ttl) {
+        if (cacheManager.getCache(region) != null) {
+            return;
+        }
+
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        configuration.setStatisticsEnabled(true);
+
+        cacheManager.createCache(region, configuration);
+    }
+}
@@ -0,0 +1,22 @@
+package com.habibian.tweeterclone.config;
+
+import java.security.Principal;
+
+/**
+ * The authenticated principal of a request, as read from its JWT token.
+ *
+ * @param userId The ID of the authenticated user.
+ * @param email  The email of the authenticated user.
+ */
+public record JwtPrincipal(Long userId, String email) implements Principal {
+
+    /**
+     * Returns the name of the principal, which is the user's email.
+     *
+     * @return The email of the authenticated user.
+     */
+    @Override
+    public String getName() {
+        return email;
+    }
+}
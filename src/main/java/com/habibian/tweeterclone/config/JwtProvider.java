@@ -1,36 +1,75 @@
 package com.habibian.tweeterclone.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Utility class for generating and extracting information from JWT tokens.
+ * <p>
+ * The signing key and the parser are built once and shared, as both are thread-safe. Verified tokens
+ * are cached by their SHA-256 hash until they expire, so a client sending the same token again skips
+ * signature verification and claim parsing.
  */
 @Service
 public class JwtProvider {
     // Secret key for signing and verifying JWT tokens
-    SecretKey key = Keys.hmacShaKeyFor(JwtConstant.SECRET_KEY.getBytes());
+    private final SecretKey key = Keys.hmacShaKeyFor(JwtConstant.SECRET_KEY.getBytes());
+
+    // Parser verifying tokens signed with the secret key
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(key).build();
+
+    // Verified tokens by token hash, each expiring with its token
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    /**
+     * Constructs a JwtProvider with a verified-token cache of the configured size.
+     *
+     * @param tokenCacheMaxSize The maximum number of cached verified tokens.
+     */
+    public JwtProvider(@Value("${tweeter.jwt.token-cache.max-size:10000}") long tokenCacheMaxSize) {
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(tokenCacheMaxSize)
+                .expireAfter(new TokenExpiry())
+                .build();
+    }
 
     /**
      * Generates a JWT token based on the provided Authentication object.
      *
-     * @param auth The Authentication object containing user details and authorities.
+     * @param auth   The Authentication object containing user details and authorities.
+     * @param userId The ID of the authenticated user.
      * @return The generated JWT token.
      */
-    public String generateToken(Authentication auth) {
+    public String generateToken(Authentication auth, Long userId) {
 
         return Jwts.builder()
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(new Date().getTime() + 86400000)) // Token expiration time (24 hours)
                 .claim("email", auth.getName())
-                .signWith(SignatureAlgorithm.HS256, key)
+                .claim("userId", userId)
+                .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -45,9 +84,105 @@ public class JwtProvider {
         jwt = jwt.substring(7);
 
         // Parse the JWT token
-        Claims claims = Jwts.parser().setSigningKey(key).parseClaimsJws(jwt).getBody();
+        Claims claims = parser.parseClaimsJws(jwt).getBody();
 
         // extract the email claim and return it
         return String.valueOf(claims.get("email"));
     }
+
+    /**
+     * Verifies a JWT token and builds the Authentication it grants.
+     *
+     * @param jwt The JWT token, without the "Bearer " prefix.
+     * @return The Authentication of the token's user.
+     * @throws BadCredentialsException If the token is invalid, expired or has no user id.
+     */
+    public Authentication getAuthentication(String jwt) {
+        String tokenHash = hash(jwt);
+        VerifiedToken token = verifiedTokens.getIfPresent(tokenHash);
+
+        if (token == null || token.expiresAt() <= System.currentTimeMillis()) {
+            token = verify(jwt);
+            verifiedTokens.put(tokenHash, token);
+        }
+
+        return new UsernamePasswordAuthenticationToken(token.principal(), null, token.authorities());
+    }
+
+    /**
+     * Verifies the signature and expiration of a JWT token and reads its claims.
+     *
+     * @param jwt The JWT token, without the "Bearer " prefix.
+     * @return The verified token.
+     * @throws BadCredentialsException If the token is invalid, expired or has no user id.
+     */
+    private VerifiedToken verify(String jwt) {
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(jwt).getBody();
+        } catch (Exception e) {
+            throw new BadCredentialsException("Invalid token...");
+        }
+
+        Long userId = claims.get("userId", Long.class);
+        if (userId == null) {
+            throw new BadCredentialsException("Token has no user id");
+        }
+
+        String email = String.valueOf(claims.get("email"));
+        String authorities = String.valueOf(claims.get("authorities"));
+
+        return new VerifiedToken(
+                new JwtPrincipal(userId, email),
+                AuthorityUtils.commaSeparatedStringToAuthorityList(authorities),
+                claims.getExpiration().getTime()
+        );
+    }
+
+    /**
+     * Hashes a token, so that cache keys have a fixed size.
+     *
+     * @param jwt The JWT token.
+     * @return The base64-encoded SHA-256 hash of the token.
+     */
+    private static String hash(String jwt) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(jwt.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A token whose signature was verified.
+     *
+     * @param principal   The authenticated principal.
+     * @param authorities The granted authorities.
+     * @param expiresAt   The expiration time of the token, in epoch milliseconds.
+     */
+    private record VerifiedToken(JwtPrincipal principal, List<GrantedAuthority> authorities, long expiresAt) {
+    }
+
+    /**
+     * Expires each cached token at the expiration time of the token itself.
+     */
+    private static class TokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+            long remainingMillis = token.expiresAt() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken token, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, token, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
@@ -0,0 +1,158 @@
+package com.habibian.tweeterclone.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.metamodel.EntityType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Startup check that every index and unique key declared on the entities exists in the database, enabled by
+ * {@code tweeter.schema.verify-indexes}.
+ * <p>
+ * Hibernate only validates tables and columns, so a schema missing an index would start and silently fall
+ * back to full scans. The declared indexes are compared with the database's index metadata by columns, not
+ * by name: an index is present if some database index starts with its columns, and a unique key is present
+ * if some unique index has exactly its columns.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "tweeter.schema.verify-indexes", havingValue = "true", matchIfMissing = true)
+public class SchemaIndexVerifier {
+
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Verifies the indexes of all entity tables.
+     *
+     * @throws IllegalStateException If an index or unique key is missing, or the index metadata cannot be read.
+     */
+    @PostConstruct
+    public void verify() {
+        List<String> missing = new ArrayList<>();
+
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+
+            for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+                Table table = entity.getJavaType().getAnnotation(Table.class);
+                if (table == null) {
+                    continue;
+                }
+
+                Map<String, DatabaseIndex> indexes = readIndexes(connection, metaData, table.name());
+
+                for (Index index : table.indexes()) {
+                    List<String> columns = columnNames(index.columnList().split(","));
+                    if (indexes.values().stream().noneMatch(existing -> existing.startsWith(columns))) {
+                        missing.add(describe(table.name(), index.name(), columns));
+                    }
+                }
+                for (UniqueConstraint unique : table.uniqueConstraints()) {
+                    List<String> columns = columnNames(unique.columnNames());
+                    if (indexes.values().stream().noneMatch(existing -> existing.isUniqueOn(columns))) {
+                        missing.add(describe(table.name(), unique.name(), columns));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot read the database indexes", e);
+        }
+
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Missing database indexes: " + String.join(", ", missing) +
+                    ". Apply the migrations in db/migration.");
+        }
+    }
+
+    /**
+     * Reads the indexes of a table, including its primary key.
+     *
+     * @param connection The database connection.
+     * @param metaData   The database metadata.
+     * @param tableName  The name of the table.
+     * @return The indexes of the table by name.
+     * @throws SQLException If the metadata cannot be read.
+     */
+    private Map<String, DatabaseIndex> readIndexes(Connection connection, DatabaseMetaData metaData, String tableName)
+            throws SQLException {
+        String table = metaData.storesUpperCaseIdentifiers() ? tableName.toUpperCase(Locale.ROOT) : tableName;
+
+        Map<String, DatabaseIndex> indexes = new HashMap<>();
+        try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), table, false, false)) {
+            while (rs.next()) {
+                String name = rs.getString("INDEX_NAME");
+                String column = rs.getString("COLUMN_NAME");
+                if (name == null || column == null) {
+                    continue;
+                }
+
+                boolean unique = !rs.getBoolean("NON_UNIQUE");
+                indexes.computeIfAbsent(name, n -> new DatabaseIndex(unique, new TreeMap<>()))
+                        .columns().put(rs.getShort("ORDINAL_POSITION"), column.toLowerCase(Locale.ROOT));
+            }
+        }
+
+        return indexes;
+    }
+
+    /**
+     * Normalizes the physical column names of an index as declared on the entity, to compare them with
+     * the database's lowercase names.
+     *
+     * @param columns The column names as declared on the entity.
+     * @return The trimmed, lowercase column names.
+     */
+    private List<String> columnNames(String[] columns) {
+        return Arrays.stream(columns)
+                .map(column -> column.trim().toLowerCase(Locale.ROOT))
+                .toList();
+    }
+
+    /**
+     * Describes a missing index for the startup error.
+     *
+     * @param table   The name of the table.
+     * @param name    The name of the index.
+     * @param columns The columns of the index.
+     * @return The description.
+     */
+    private String describe(String table, String name, List<String> columns) {
+        return name + " on " + table + "(" + String.join(", ", columns) + ")";
+    }
+
+    /**
+     * An index of the database, with its columns by ordinal position.
+     */
+    private record DatabaseIndex(boolean unique, SortedMap<Short, String> columns) {
+
+        /**
+         * @param required The required columns.
+         * @return true if this index starts with the required columns, in order; otherwise, false.
+         */
+        boolean startsWith(List<String> required) {
+            List<String> own = new ArrayList<>(columns.values());
+            return own.size() >= required.size() && own.subList(0, required.size()).equals(required);
+        }
+
+        /**
+         * @param required The required columns.
+         * @return true if this index is unique on exactly the required columns; otherwise, false.
+         */
+        boolean isUniqueOn(List<String> required) {
+            return unique && new HashSet<>(columns.values()).equals(new HashSet<>(required));
+        }
+    }
+}
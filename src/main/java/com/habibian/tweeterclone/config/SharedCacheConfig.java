@@ -0,0 +1,43 @@
+package com.habibian.tweeterclone.config;
+
+import com.habibian.tweeterclone.cache.InMemorySharedCache;
+import com.habibian.tweeterclone.cache.RedisSharedCache;
+import com.habibian.tweeterclone.cache.SharedCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the {@link SharedCache} backend, selected by {@code tweeter.cache.type}.
+ * <p>
+ * {@code memory}, the default, keeps the cache inside this instance, which is only shared when a single
+ * instance runs; {@code redis} stores it in a Redis server shared by all instances.
+ */
+@Configuration
+public class SharedCacheConfig {
+
+    /**
+     * Creates the in-memory shared cache.
+     *
+     * @param maxSize The maximum number of entries.
+     * @return The shared cache.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "tweeter.cache.type", havingValue = "memory", matchIfMissing = true)
+    public SharedCache inMemorySharedCache(@Value("${tweeter.cache.memory.max-size:100000}") long maxSize) {
+        return new InMemorySharedCache(maxSize);
+    }
+
+    /**
+     * Creates the Redis shared cache.
+     *
+     * @param uri The URI of the Redis server.
+     * @return The shared cache.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "tweeter.cache.type", havingValue = "redis")
+    public SharedCache redisSharedCache(@Value("${tweeter.cache.redis.uri:redis://localhost:6379}") String uri) {
+        return new RedisSharedCache(uri);
+    }
+}
@@ -0,0 +1,35 @@
+package com.habibian.tweeterclone.config;
+
+import com.habibian.tweeterclone.model.SnowflakeIdentifierGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the time-ordered tweet ids.
+ * <p>
+ * Every running instance must have its own {@code tweeter.snowflake.node-id}, between 0 and 1023, or two
+ * instances may issue the same id.
+ */
+@Configuration
+public class SnowflakeIdConfig {
+
+    /**
+     * Hands the node id and the maximum clock skew to the Hibernate id generator.
+     *
+     * @param nodeId       The node id of this instance.
+     * @param maxClockSkew How far back the clock may move before id generation fails.
+     * @return The customizer of the Hibernate properties.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer snowflakeIdCustomizer(@Value("${tweeter.snowflake.node-id:0}") long nodeId,
+                                                               @Value("${tweeter.snowflake.max-clock-skew:1s}") Duration maxClockSkew) {
+        return properties -> {
+            properties.put(SnowflakeIdentifierGenerator.NODE_ID, nodeId);
+            properties.put(SnowflakeIdentifierGenerator.MAX_CLOCK_SKEW_MILLIS, maxClockSkew.toMillis());
+        };
+    }
+}
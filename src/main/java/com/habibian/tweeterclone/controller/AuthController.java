@@ -6,6 +6,7 @@ import com.habibian.tweeterclone.model.User;
 import com.habibian.tweeterclone.model.Verification;
 import com.habibian.tweeterclone.repository.UserRepository;
 import com.habibian.tweeterclone.response.AuthResponse;
+import com.habibian.tweeterclone.search.UserSearchIndex;
 import com.habibian.tweeterclone.service.CustomUserDetailsServiceImpl;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -34,6 +35,7 @@ public class AuthController {
     private final PasswordEncoder passwordEncoder;
     private final JwtProvider jwtProvider;
     private final CustomUserDetailsServiceImpl customUserDetailsService;
+    private final UserSearchIndex userSearchIndex;
 
     /**
      * Handles the user signup process.
@@ -63,11 +65,12 @@ public class AuthController {
         createdUser.setVerification(new Verification());
 
         User savedUser = userRepository.save(createdUser);
+        userSearchIndex.index(savedUser);
 
         Authentication authentication = new UsernamePasswordAuthenticationToken(email, password);
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
-        String token = jwtProvider.generateToken(authentication);
+        String token = jwtProvider.generateToken(authentication, savedUser.getId());
 
         AuthResponse authResponse = new AuthResponse(token, true);
 
@@ -86,8 +89,9 @@ public class AuthController {
         String password = user.getPassword();
 
         Authentication authentication = authenticate(username, password);
+        User authenticatedUser = userRepository.findByEmail(username);
 
-        String token = jwtProvider.generateToken(authentication);
+        String token = jwtProvider.generateToken(authentication, authenticatedUser.getId());
 
         AuthResponse authResponse = new AuthResponse(token, true);
 
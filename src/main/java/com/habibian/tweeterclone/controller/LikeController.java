@@ -1,13 +1,20 @@
 package com.habibian.tweeterclone.controller;
 
+import com.habibian.tweeterclone.config.CurrentUser;
+import com.habibian.tweeterclone.dto.CursorPageDTO;
 import com.habibian.tweeterclone.dto.LikeDTO;
+import com.habibian.tweeterclone.dto.UserDTO;
+import com.habibian.tweeterclone.dto.ViewerState;
 import com.habibian.tweeterclone.dto.mapper.LikeDtoMapper;
 import com.habibian.tweeterclone.exception.TweetException;
 import com.habibian.tweeterclone.exception.UserException;
 import com.habibian.tweeterclone.model.Like;
 import com.habibian.tweeterclone.model.User;
+import com.habibian.tweeterclone.repository.projection.LikerView;
 import com.habibian.tweeterclone.service.LikeService;
+import com.habibian.tweeterclone.service.TweetService;
 import com.habibian.tweeterclone.service.UserService;
+import com.habibian.tweeterclone.util.PaginationUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -19,7 +26,7 @@ import java.util.List;
  * Controller class handling like-related operations through API endpoints.
  * <p>
  * The LikeController manages the creation and retrieval of likes associated with tweets.
- * It provides endpoints for liking a tweet and fetching all likes for a specific tweet.
+ * It provides endpoints for liking a tweet and fetching the users who liked a specific tweet.
  * <p>
  * This controller collaborates with the UserService and LikeService to handle user
  * authentication and like-related functionality efficiently.
@@ -31,48 +38,51 @@ public class LikeController {
 
     private final UserService userService;
     private final LikeService likeService;
+    private final TweetService tweetService;
 
     /**
      * Endpoint for liking a tweet.
      *
      * @param tweetId The ID of the tweet to be liked.
-     * @param jwt     The user's JWT token for authentication.
+     * @param user    The authenticated user.
      * @return ResponseEntity containing the LikeDTO representing the liked tweet.
      * @throws UserException  If user-related exceptions occur.
      * @throws TweetException If tweet-related exceptions occur.
      */
     @PostMapping("/{tweetId}/likes")
     public ResponseEntity<LikeDTO> likeTweet(@PathVariable Long tweetId,
-                                             @RequestHeader("Authorization") String jwt)
+                                             @CurrentUser User user)
             throws UserException, TweetException {
 
-        User user = userService.findUserProfileByJwt(jwt);
-
         Like like = likeService.likeTweet(tweetId, user);
-        LikeDTO likeDto = LikeDtoMapper.toLikeDto(like, user);
+        ViewerState viewerState = tweetService.getViewerState(List.of(like.getTweet()), user);
+        LikeDTO likeDto = LikeDtoMapper.toLikeDto(like, viewerState);
 
         return new ResponseEntity<>(likeDto, HttpStatus.CREATED);
     }
 
     /**
-     * Endpoint for fetching all likes associated with a specific tweet.
+     * Endpoint for fetching a page of the users who liked a specific tweet, most recent like first.
      *
-     * @param tweetId The ID of the tweet for which likes are to be retrieved.
-     * @param jwt     The user's JWT token for authentication.
-     * @return ResponseEntity containing a list of LikeDTOs representing the likes for the tweet.
-     * @throws UserException  If user-related exceptions occur.
+     * @param tweetId The ID of the tweet for which likers are to be retrieved.
+     * @param cursor  The cursor returned with the previous page, or absent for the first page.
+     * @param size    The page size, bounded by {@link PaginationUtil#MAX_PAGE_SIZE}.
+     * @return ResponseEntity containing a page of summary UserDTOs and the cursor of the next page.
      * @throws TweetException If tweet-related exceptions occur.
      */
     @GetMapping("/tweet/{tweetId}")
-    public ResponseEntity<List<LikeDTO>> getAllLikes(@PathVariable Long tweetId,
-                                                     @RequestHeader("Authorization") String jwt)
-            throws UserException, TweetException {
+    public ResponseEntity<CursorPageDTO<UserDTO>> getAllLikes(@PathVariable Long tweetId,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer size)
+            throws TweetException {
 
-        User user = userService.findUserProfileByJwt(jwt);
+        CursorPageDTO<LikerView> likers = likeService.getLikers(tweetId, cursor, PaginationUtil.clampPageSize(size));
 
-        List<Like> allLikes = likeService.getAllLikes(tweetId);
-        List<LikeDTO> likeDTOS = LikeDtoMapper.toLikeDTOS(allLikes, user);
+        CursorPageDTO<UserDTO> page = CursorPageDTO.<UserDTO>builder()
+                .items(LikeDtoMapper.toLikerDTOS(likers.getItems()))
+                .nextCursor(likers.getNextCursor())
+                .build();
 
-        return new ResponseEntity<>(likeDTOS, HttpStatus.OK);
+        return new ResponseEntity<>(page, HttpStatus.OK);
     }
 }
@@ -1,6 +1,11 @@
 package com.habibian.tweeterclone.controller;
 
+import com.habibian.tweeterclone.cache.TimelineCache;
+import com.habibian.tweeterclone.config.CurrentUser;
+import com.habibian.tweeterclone.dto.CursorPageDTO;
+import com.habibian.tweeterclone.dto.ThreadDTO;
 import com.habibian.tweeterclone.dto.TweetDTO;
+import com.habibian.tweeterclone.dto.ViewerState;
 import com.habibian.tweeterclone.dto.mapper.TweetDtoMapper;
 import com.habibian.tweeterclone.exception.TweetException;
 import com.habibian.tweeterclone.exception.UserException;
@@ -8,13 +13,18 @@ import com.habibian.tweeterclone.model.Tweet;
 import com.habibian.tweeterclone.model.User;
 import com.habibian.tweeterclone.request.TweetReplyRequest;
 import com.habibian.tweeterclone.response.ApiResponse;
+import com.habibian.tweeterclone.service.TimelineService;
 import com.habibian.tweeterclone.service.TweetService;
 import com.habibian.tweeterclone.service.UserService;
+import com.habibian.tweeterclone.util.PageCursor;
+import com.habibian.tweeterclone.util.PaginationUtil;
+import com.habibian.tweeterclone.util.TweetUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -26,48 +36,69 @@ import java.util.List;
 public class TweetController {
 
     private final TweetService tweetService;
+    private final TimelineService timelineService;
+    private final TimelineCache timelineCache;
     private final UserService userService;
 
     /**
      * Creates a new tweet.
      *
      * @param req The request body containing tweet details.
-     * @param jwt The authorization token.
+     * @param user The authenticated user.
      * @return ResponseEntity containing the created TweetDTO.
      * @throws UserException  If user-related exceptions occur.
      * @throws TweetException If tweet-related exceptions occur.
      */
     @PostMapping("/create")
     public ResponseEntity<TweetDTO> createTweet(@RequestBody Tweet req,
-                                                @RequestHeader("Authorization") String jwt)
+                                                @CurrentUser User user)
             throws UserException, TweetException {
 
-        User user = userService.findUserProfileByJwt(jwt);
-
         Tweet tweet = tweetService.createTweet(req, user);
-        TweetDTO tweetDTO = TweetDtoMapper.toTweetDto(tweet, user);
+        ViewerState viewerState = tweetService.getViewerState(List.of(tweet), user);
+        TweetDTO tweetDTO = TweetDtoMapper.toTweetDto(tweet, List.of(), viewerState);
 
         return new ResponseEntity<>(tweetDTO, HttpStatus.CREATED);
     }
 
+    /**
+     * Imports tweets of the authenticated user in bulk, such as an archive exported from another service.
+     *
+     * @param req  The request body containing the tweets to import.
+     * @param user The authenticated user.
+     * @return ResponseEntity containing the API response with the number of imported tweets.
+     * @throws UserException  If user-related exceptions occur.
+     * @throws TweetException If tweet-related exceptions occur.
+     */
+    @PostMapping("/import")
+    public ResponseEntity<ApiResponse> importTweets(@RequestBody List<Tweet> req,
+                                                    @CurrentUser User user)
+            throws UserException, TweetException {
+
+        int imported = tweetService.importTweets(req, user);
+
+        ApiResponse res = new ApiResponse(imported + " tweets imported successfully", true);
+
+        return new ResponseEntity<>(res, HttpStatus.CREATED);
+    }
+
     /**
      * Replies to a tweet.
      *
      * @param req The request body containing tweet reply details.
-     * @param jwt The authorization token.
+     * @param user The authenticated user.
      * @return ResponseEntity containing the created TweetDTO for the reply.
      * @throws UserException  If user-related exceptions occur.
      * @throws TweetException If tweet-related exceptions occur.
      */
     @PostMapping("/reply")
     public ResponseEntity<TweetDTO> replyTweet(@RequestBody TweetReplyRequest req,
-                                               @RequestHeader("Authorization") String jwt)
+                                               @CurrentUser User user)
             throws UserException, TweetException {
 
-        User user = userService.findUserProfileByJwt(jwt);
-
         Tweet tweet = tweetService.createReply(req, user);
-        TweetDTO tweetDTO = TweetDtoMapper.toTweetDto(tweet, user);
+        ViewerState viewerState = tweetService.getViewerState(List.of(tweet), user);
+        TweetDTO tweetDTO = TweetDtoMapper.toTweetDto(tweet, List.of(), viewerState);
 
         return new ResponseEntity<>(tweetDTO, HttpStatus.CREATED);
     }
@@ -76,20 +107,18 @@ public class TweetController {
      * Retweets a tweet.
      *
      * @param tweetId The ID of the tweet to retweet.
-     * @param jwt     The authorization token.
+     * @param user    The authenticated user.
      * @return ResponseEntity containing the retweeted TweetDTO.
      * @throws UserException  If user-related exceptions occur.
      * @throws TweetException If tweet-related exceptions occur.
      */
     @PutMapping("/{tweetId}/retweet")
     public ResponseEntity<TweetDTO> retweet(@PathVariable Long tweetId,
-                                            @RequestHeader("Authorization") String jwt)
+                                            @CurrentUser User user)
             throws UserException, TweetException {
 
-        User user = userService.findUserProfileByJwt(jwt);
-
         Tweet tweet = tweetService.retweet(tweetId, user);
-        TweetDTO tweetDTO = TweetDtoMapper.toTweetDto(tweet, user);
+        TweetDTO tweetDTO = toTweetDtoWithReplies(tweet, user);
 
         return new ResponseEntity<>(tweetDTO, HttpStatus.OK);
     }
@@ -98,40 +127,106 @@ public class TweetController {
      * Retrieves a tweet by its ID.
      *
      * @param tweetId The ID of the tweet to retrieve.
-     * @param jwt     The authorization token.
+     * @param user    The authenticated user.
      * @return ResponseEntity containing the retrieved TweetDTO.
      * @throws UserException  If user-related exceptions occur.
      * @throws TweetException If tweet-related exceptions occur.
      */
     @GetMapping("/{tweetId}")
     public ResponseEntity<TweetDTO> findTweetById(@PathVariable Long tweetId,
-                                                  @RequestHeader("Authorization") String jwt)
+                                                  @CurrentUser User user)
             throws UserException, TweetException {
 
-        User user = userService.findUserProfileByJwt(jwt);
-
         Tweet tweet = tweetService.finById(tweetId);
-        TweetDTO tweetDTO = TweetDtoMapper.toTweetDto(tweet, user);
+        TweetDTO tweetDTO = toTweetDtoWithReplies(tweet, user);
 
         return new ResponseEntity<>(tweetDTO, HttpStatus.OK);
     }
 
+    /**
+     * Retrieves a page of the direct replies to a tweet, oldest first.
+     *
+     * @param tweetId The ID of the replied tweet.
+     * @param cursor  The cursor returned with the previous page, or absent for the first page.
+     * @param size    The page size, bounded by {@link PaginationUtil#MAX_PAGE_SIZE}.
+     * @param user    The authenticated user.
+     * @return ResponseEntity containing a page of reply TweetDTOs and the cursor of the next page.
+     * @throws UserException  If user-related exceptions occur.
+     * @throws TweetException If tweet-related exceptions occur.
+     */
+    @GetMapping("/{tweetId}/replies")
+    public ResponseEntity<CursorPageDTO<TweetDTO>> getReplies(@PathVariable Long tweetId,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer size,
+                                                              @CurrentUser User user)
+            throws UserException, TweetException {
+
+        int pageSize = PaginationUtil.clampPageSize(size);
+        List<Tweet> replies = tweetService.findReplies(tweetId, cursor, pageSize);
+
+        CursorPageDTO<TweetDTO> page = CursorPageDTO.<TweetDTO>builder()
+                .items(TweetDtoMapper.toTweetDTOS(replies, tweetService.getViewerState(replies, user)))
+                .nextCursor(PaginationUtil.nextCursor(replies, pageSize,
+                        reply -> PageCursor.ofId(reply.getId())))
+                .build();
+
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
+    /**
+     * Retrieves a tweet within its conversation: all its ancestors and its descendants down to a
+     * bounded depth and count.
+     *
+     * @param tweetId The ID of the tweet.
+     * @param depth   The number of levels of replies to load, bounded by {@link TweetUtil#MAX_THREAD_DEPTH}.
+     * @param limit   The maximum number of replies to load, bounded by {@link TweetUtil#MAX_THREAD_REPLIES}.
+     * @param user    The authenticated user.
+     * @return ResponseEntity containing the ThreadDTO of the tweet.
+     * @throws UserException  If user-related exceptions occur.
+     * @throws TweetException If tweet-related exceptions occur.
+     */
+    @GetMapping("/{tweetId}/thread")
+    public ResponseEntity<ThreadDTO> getThread(@PathVariable Long tweetId,
+                                               @RequestParam(defaultValue = "3") int depth,
+                                               @RequestParam(defaultValue = "200") int limit,
+                                               @CurrentUser User user)
+            throws UserException, TweetException {
+
+        Tweet tweet = tweetService.finById(tweetId);
+        int maxReplies = Math.max(1, Math.min(limit, TweetUtil.MAX_THREAD_REPLIES));
+
+        List<Tweet> ancestors = tweetService.findAncestors(tweet);
+        List<Tweet> descendants = tweetService.findDescendants(tweet,
+                Math.max(1, Math.min(depth, TweetUtil.MAX_THREAD_DEPTH)), maxReplies + 1);
+
+        boolean truncated = descendants.size() > maxReplies;
+        if (truncated) {
+            descendants = descendants.subList(0, maxReplies);
+        }
+
+        List<Tweet> threadTweets = new ArrayList<>(ancestors);
+        threadTweets.addAll(TweetUtil.withReplies(tweet, descendants));
+        ViewerState viewerState = tweetService.getViewerState(threadTweets, user);
+
+        ThreadDTO threadDto = TweetDtoMapper.toThreadDto(ancestors, tweet, descendants, truncated, viewerState);
+
+        return new ResponseEntity<>(threadDto, HttpStatus.OK);
+    }
+
     /**
      * Deletes a tweet by its ID.
      *
      * @param tweetId The ID of the tweet to delete.
-     * @param jwt     The authorization token.
+     * @param user    The authenticated user.
      * @return ResponseEntity containing the API response for tweet deletion.
      * @throws UserException  If user-related exceptions occur.
      * @throws TweetException If tweet-related exceptions occur.
      */
     @DeleteMapping("/{tweetId}")
     public ResponseEntity<ApiResponse> deleteTweetById(@PathVariable Long tweetId,
-                                                       @RequestHeader("Authorization") String jwt)
+                                                       @CurrentUser User user)
             throws UserException, TweetException {
 
-        User user = userService.findUserProfileByJwt(jwt);
-
         tweetService.deleteByTweetId(tweetId, user.getId());
 
         ApiResponse res = new ApiResponse("Tweet deleted successfully", true);
@@ -140,66 +235,170 @@ public class TweetController {
     }
 
     /**
-     * Retrieves all tweets.
+     * Retrieves a page of tweets, newest first.
      *
-     * @param jwt The authorization token.
-     * @return ResponseEntity containing a list of all TweetDTOs.
+     * @param cursor The cursor returned with the previous page, or absent for the first page.
+     * @param size   The page size, bounded by {@link PaginationUtil#MAX_PAGE_SIZE}.
+     * @param user   The authenticated user.
+     * @return ResponseEntity containing a page of TweetDTOs and the cursor of the next page.
      * @throws UserException  If user-related exceptions occur.
      * @throws TweetException If tweet-related exceptions occur.
      */
     @GetMapping
-    public ResponseEntity<List<TweetDTO>> getAllTweets(@RequestHeader("Authorization") String jwt)
+    public ResponseEntity<CursorPageDTO<TweetDTO>> getAllTweets(@RequestParam(required = false) String cursor,
+                                                                @RequestParam(required = false) Integer size,
+                                                                @CurrentUser User user)
+            throws UserException, TweetException {
+
+        int pageSize = PaginationUtil.clampPageSize(size);
+        List<Tweet> tweets = tweetService.findAllTweets(cursor, pageSize);
+
+        CursorPageDTO<TweetDTO> page = CursorPageDTO.<TweetDTO>builder()
+                .items(TweetDtoMapper.toTweetDTOS(tweets, tweetService.getViewerState(tweets, user)))
+                .nextCursor(PaginationUtil.nextCursor(tweets, pageSize,
+                        tweet -> PageCursor.ofId(tweet.getId())))
+                .build();
+
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
+    /**
+     * Retrieves a page of the authenticated user's home timeline: their own tweets and the tweets
+     * and retweets of the users they follow, newest first.
+     *
+     * @param cursor The cursor returned with the previous page, or absent for the first page.
+     * @param size   The page size, bounded by {@link PaginationUtil#MAX_PAGE_SIZE}.
+     * @param user   The authenticated user.
+     * @return ResponseEntity containing a page of TweetDTOs and the cursor of the next page.
+     * @throws UserException  If user-related exceptions occur.
+     * @throws TweetException If tweet-related exceptions occur.
+     */
+    @GetMapping("/home")
+    public ResponseEntity<CursorPageDTO<TweetDTO>> getHomeTimeline(@RequestParam(required = false) String cursor,
+                                                                   @RequestParam(required = false) Integer size,
+                                                                   @CurrentUser User user)
+            throws UserException, TweetException {
+
+        int pageSize = PaginationUtil.clampPageSize(size);
+
+        CursorPageDTO<TweetDTO> page = timelineCache.getHomePage(user.getId(), cursor, pageSize, () -> {
+            CursorPageDTO<Tweet> timeline = timelineService.getHomeTimeline(user, cursor, pageSize);
+
+            ViewerState viewerState = tweetService.getViewerState(timeline.getItems(), user);
+
+            return CursorPageDTO.<TweetDTO>builder()
+                    .items(TweetDtoMapper.toTweetDTOS(timeline.getItems(), viewerState))
+                    .nextCursor(timeline.getNextCursor())
+                    .build();
+        });
+
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
+    /**
+     * Searches tweets and replies by words, hashtags and mentions, ranked by relevance and recency.
+     *
+     * @param query  The search query.
+     * @param cursor The cursor returned with the previous page, or absent for the first page.
+     * @param size   The page size, bounded by {@link PaginationUtil#MAX_PAGE_SIZE}.
+     * @param user   The authenticated user.
+     * @return ResponseEntity containing a page of matching TweetDTOs and the cursor of the next page.
+     * @throws UserException  If user-related exceptions occur.
+     * @throws TweetException If tweet-related exceptions occur.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<CursorPageDTO<TweetDTO>> searchTweets(@RequestParam String query,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(required = false) Integer size,
+                                                                @CurrentUser User user)
             throws UserException, TweetException {
 
-        User user = userService.findUserProfileByJwt(jwt);
+        CursorPageDTO<Tweet> result = tweetService.searchTweets(query, cursor, PaginationUtil.clampPageSize(size));
+
+        ViewerState viewerState = tweetService.getViewerState(result.getItems(), user);
 
-        List<Tweet> allTweets = tweetService.findAllTweets();
-        List<TweetDTO> tweetDTOS = TweetDtoMapper.toTweetDTOS(allTweets, user);
+        CursorPageDTO<TweetDTO> page = CursorPageDTO.<TweetDTO>builder()
+                .items(TweetDtoMapper.toTweetDTOS(result.getItems(), viewerState))
+                .nextCursor(result.getNextCursor())
+                .build();
 
-        return new ResponseEntity<>(tweetDTOS, HttpStatus.OK);
+        return new ResponseEntity<>(page, HttpStatus.OK);
     }
 
     /**
-     * Retrieves all tweets for a specific user.
+     * Retrieves a page of a user's tweets and retweets, newest first.
      *
      * @param userId The ID of the user for whom to retrieve tweets.
-     * @param jwt    The authorization token.
-     * @return ResponseEntity containing a list of TweetDTOs for the user.
+     * @param cursor The cursor returned with the previous page, or absent for the first page.
+     * @param size   The page size, bounded by {@link PaginationUtil#MAX_PAGE_SIZE}.
+     * @param user   The authenticated user.
+     * @return ResponseEntity containing a page of TweetDTOs for the user and the cursor of the next page.
      * @throws UserException  If user-related exceptions occur.
      * @throws TweetException If tweet-related exceptions occur.
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<TweetDTO>> getUserAllTweets(@PathVariable Long userId,
-                                                           @RequestHeader("Authorization") String jwt)
+    public ResponseEntity<CursorPageDTO<TweetDTO>> getUserAllTweets(@PathVariable Long userId,
+                                                                    @RequestParam(required = false) String cursor,
+                                                                    @RequestParam(required = false) Integer size,
+                                                                    @CurrentUser User user)
             throws UserException, TweetException {
 
-        User user = userService.findUserProfileByJwt(jwt);
+        CursorPageDTO<Tweet> timeline = timelineService.getUserTimeline(userId, cursor,
+                PaginationUtil.clampPageSize(size));
 
-        List<Tweet> allTweets = tweetService.getUserTweets(user);
-        List<TweetDTO> tweetDTOS = TweetDtoMapper.toTweetDTOS(allTweets, user);
+        ViewerState viewerState = tweetService.getViewerState(timeline.getItems(), user);
 
-        return new ResponseEntity<>(tweetDTOS, HttpStatus.OK);
+        CursorPageDTO<TweetDTO> page = CursorPageDTO.<TweetDTO>builder()
+                .items(TweetDtoMapper.toTweetDTOS(timeline.getItems(), viewerState))
+                .nextCursor(timeline.getNextCursor())
+                .build();
+
+        return new ResponseEntity<>(page, HttpStatus.OK);
     }
 
     /**
-     * Retrieves all tweets liked by a specific user.
+     * Retrieves a page of the tweets liked by a user, most recently liked first.
      *
      * @param userId The ID of the user for whom to retrieve liked tweets.
-     * @param jwt    The authorization token.
-     * @return ResponseEntity containing a list of TweetDTOs liked by the user.
+     * @param cursor The cursor returned with the previous page, or absent for the first page.
+     * @param size   The page size, bounded by {@link PaginationUtil#MAX_PAGE_SIZE}.
+     * @param user   The authenticated user.
+     * @return ResponseEntity containing a page of TweetDTOs liked by the user and the cursor of the next page.
      * @throws UserException  If user-related exceptions occur.
      * @throws TweetException If tweet-related exceptions occur.
      */
     @GetMapping("/user/{userId}/likes")
-    public ResponseEntity<List<TweetDTO>> findTweetByLikesContainsUser(@PathVariable Long userId,
-                                                                       @RequestHeader("Authorization") String jwt)
+    public ResponseEntity<CursorPageDTO<TweetDTO>> findTweetByLikesContainsUser(@PathVariable Long userId,
+                                                                                @RequestParam(required = false) String cursor,
+                                                                                @RequestParam(required = false) Integer size,
+                                                                                @CurrentUser User user)
             throws UserException, TweetException {
 
-        User user = userService.findUserProfileByJwt(jwt);
+        CursorPageDTO<Tweet> likedTweets = tweetService.findLikedTweets(userId, cursor,
+                PaginationUtil.clampPageSize(size));
+
+        ViewerState viewerState = tweetService.getViewerState(likedTweets.getItems(), user);
+
+        CursorPageDTO<TweetDTO> page = CursorPageDTO.<TweetDTO>builder()
+                .items(TweetDtoMapper.toTweetDTOS(likedTweets.getItems(), viewerState))
+                .nextCursor(likedTweets.getNextCursor())
+                .build();
+
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
 
-        List<Tweet> allTweets = tweetService.findByLikesContainsUser(user);
-        List<TweetDTO> tweetDTOS = TweetDtoMapper.toTweetDTOS(allTweets, user);
+    /**
+     * Converts a tweet to a TweetDTO carrying a preview of its first replies.
+     *
+     * @param tweet The tweet.
+     * @param user  The authenticated user.
+     * @return The TweetDTO of the tweet.
+     * @throws TweetException If tweet-related exceptions occur.
+     */
+    private TweetDTO toTweetDtoWithReplies(Tweet tweet, User user) throws TweetException {
+        List<Tweet> replyPreview = tweetService.findReplies(tweet.getId(), null, TweetUtil.REPLY_PREVIEW_SIZE);
+        ViewerState viewerState = tweetService.getViewerState(TweetUtil.withReplies(tweet, replyPreview), user);
 
-        return new ResponseEntity<>(tweetDTOS, HttpStatus.OK);
+        return TweetDtoMapper.toTweetDto(tweet, replyPreview, viewerState);
     }
 }
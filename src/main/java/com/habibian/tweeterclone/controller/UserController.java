@@ -1,10 +1,15 @@
 package com.habibian.tweeterclone.controller;
 
+import com.habibian.tweeterclone.config.CurrentUser;
+import com.habibian.tweeterclone.dto.CursorPageDTO;
 import com.habibian.tweeterclone.dto.UserDTO;
 import com.habibian.tweeterclone.dto.mapper.UserDtoMapper;
 import com.habibian.tweeterclone.exception.UserException;
+import com.habibian.tweeterclone.model.Follow;
 import com.habibian.tweeterclone.model.User;
 import com.habibian.tweeterclone.service.UserService;
+import com.habibian.tweeterclone.util.PageCursor;
+import com.habibian.tweeterclone.util.PaginationUtil;
 import com.habibian.tweeterclone.util.UserUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -12,6 +17,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * Controller class handling user-related operations through API endpoints.
@@ -34,13 +40,12 @@ public class UserController {
     /**
      * Endpoint for retrieving the user profile of the authenticated user.
      *
-     * @param jwt The user's JWT token for authentication.
+     * @param user The authenticated user.
      * @return ResponseEntity containing the UserDTO representing the user profile.
      * @throws UserException If user-related exceptions occur.
      */
     @GetMapping("/profile")
-    public ResponseEntity<UserDTO> getUserProfile(@RequestHeader("Authorization") String jwt) throws UserException {
-        User user = userService.findUserProfileByJwt(jwt);
+    public ResponseEntity<UserDTO> getUserProfile(@CurrentUser User user) throws UserException {
         UserDTO userDto = UserDtoMapper.toUserDto(user);
         userDto.setReq_user(true);
 
@@ -50,79 +55,134 @@ public class UserController {
     /**
      * Endpoint for retrieving the user profile by user ID.
      *
-     * @param jwt     The user's JWT token for authentication.
+     * @param reqUser The authenticated user.
      * @param userId  The ID of the user profile to be retrieved.
      * @return ResponseEntity containing the UserDTO representing the user profile.
      * @throws UserException If user-related exceptions occur.
      */
     @GetMapping("/{userId}")
-    public ResponseEntity<UserDTO> getUserById(@RequestHeader("Authorization") String jwt,
+    public ResponseEntity<UserDTO> getUserById(@CurrentUser User reqUser,
                                                @PathVariable Long userId) throws UserException {
-        User reqUser = userService.findUserProfileByJwt(jwt);
-
         User user = userService.findUserById(userId);
         UserDTO userDto = UserDtoMapper.toUserDto(user);
         userDto.setReq_user(UserUtil.isReqUser(reqUser, user));
-        userDto.setFollowed(UserUtil.isFollowedByReqUser(reqUser, user));
+        userDto.setFollowed(userService.isFollowing(reqUser.getId(), user.getId()));
 
         return new ResponseEntity<>(userDto, HttpStatus.ACCEPTED);
     }
 
     /**
-     * Endpoint for searching users based on a query string.
+     * Endpoint for searching users based on a query string, as typed, best match first.
      *
-     * @param jwt   The user's JWT token for authentication.
-     * @param query The query string for user search.
-     * @return ResponseEntity containing a list of UserDTOs representing the search results.
+     * @param query  The query string for user search.
+     * @param cursor The cursor returned with the previous page, or absent for the first page.
+     * @param size   The page size, bounded by {@link PaginationUtil#MAX_PAGE_SIZE}.
+     * @return ResponseEntity containing a page of UserDTOs representing the search results.
      * @throws UserException If user-related exceptions occur.
      */
     @GetMapping("/search")
-    public ResponseEntity<List<UserDTO>> searchUser(@RequestHeader("Authorization") String jwt,
-                                                    @RequestParam String query) throws UserException {
-        User reqUser = userService.findUserProfileByJwt(jwt);
-
-        List<User> users = userService.searchUser(query);
-        List<UserDTO> userDTOs = UserDtoMapper.toUserDTOs(users);
-
-        return new ResponseEntity<>(userDTOs, HttpStatus.ACCEPTED);
+    public ResponseEntity<CursorPageDTO<UserDTO>> searchUser(@RequestParam String query,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(required = false) Integer size)
+            throws UserException {
+        CursorPageDTO<User> result = userService.searchUser(query, cursor, PaginationUtil.clampPageSize(size));
+
+        CursorPageDTO<UserDTO> page = CursorPageDTO.<UserDTO>builder()
+                .items(UserDtoMapper.toUserDTOs(result.getItems()))
+                .nextCursor(result.getNextCursor())
+                .build();
+
+        return new ResponseEntity<>(page, HttpStatus.ACCEPTED);
     }
 
     /**
      * Endpoint for updating user information.
      *
-     * @param jwt The user's JWT token for authentication.
-     * @param req The updated user information.
+     * @param reqUser The authenticated user.
+     * @param req     The updated user information.
      * @return ResponseEntity containing the UserDTO representing the updated user profile.
      * @throws UserException If user-related exceptions occur.
      */
     @PutMapping("/update")
-    public ResponseEntity<UserDTO> updateUser(@RequestHeader("Authorization") String jwt,
+    public ResponseEntity<UserDTO> updateUser(@CurrentUser User reqUser,
                                               @RequestBody User req) throws UserException {
-        User reqUser = userService.findUserProfileByJwt(jwt);
-
         User updatedUser = userService.updateUser(reqUser.getId(), req);
         UserDTO userDto = UserDtoMapper.toUserDto(updatedUser);
 
         return new ResponseEntity<>(userDto, HttpStatus.ACCEPTED);
     }
 
+    /**
+     * Endpoint for retrieving a page of a user's followers.
+     *
+     * @param userId The ID of the followed user.
+     * @param cursor The cursor returned with the previous page, or absent for the first page.
+     * @param size   The page size, bounded by {@link PaginationUtil#MAX_PAGE_SIZE}.
+     * @return ResponseEntity containing a page of UserDTOs and the cursor of the next page.
+     * @throws UserException If user-related exceptions occur.
+     */
+    @GetMapping("/{userId}/followers")
+    public ResponseEntity<CursorPageDTO<UserDTO>> getFollowers(@PathVariable Long userId,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(required = false) Integer size)
+            throws UserException {
+        int pageSize = PaginationUtil.clampPageSize(size);
+        List<Follow> follows = userService.findFollowers(userId, cursor, pageSize);
+
+        return new ResponseEntity<>(toUserPage(follows, Follow::getFollower, pageSize), HttpStatus.OK);
+    }
+
+    /**
+     * Endpoint for retrieving a page of the users a user is following.
+     *
+     * @param userId The ID of the following user.
+     * @param cursor The cursor returned with the previous page, or absent for the first page.
+     * @param size   The page size, bounded by {@link PaginationUtil#MAX_PAGE_SIZE}.
+     * @return ResponseEntity containing a page of UserDTOs and the cursor of the next page.
+     * @throws UserException If user-related exceptions occur.
+     */
+    @GetMapping("/{userId}/followings")
+    public ResponseEntity<CursorPageDTO<UserDTO>> getFollowings(@PathVariable Long userId,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(required = false) Integer size)
+            throws UserException {
+        int pageSize = PaginationUtil.clampPageSize(size);
+        List<Follow> follows = userService.findFollowings(userId, cursor, pageSize);
+
+        return new ResponseEntity<>(toUserPage(follows, Follow::getFollowee, pageSize), HttpStatus.OK);
+    }
+
     /**
      * Endpoint for following/unfollowing a user.
      *
-     * @param jwt    The user's JWT token for authentication.
+     * @param reqUser The authenticated user.
      * @param userId The ID of the user to be followed/unfollowed.
      * @return ResponseEntity containing the UserDTO representing the updated user profile.
      * @throws UserException If user-related exceptions occur.
      */
     @PutMapping("/{userId}/follow")
-    public ResponseEntity<UserDTO> followUser(@RequestHeader("Authorization") String jwt,
+    public ResponseEntity<UserDTO> followUser(@CurrentUser User reqUser,
                                               @PathVariable Long userId) throws UserException {
-        User reqUser = userService.findUserProfileByJwt(jwt);
-
         User user = userService.followUser(userId, reqUser);
         UserDTO userDto = UserDtoMapper.toUserDto(user);
-        userDto.setFollowed(UserUtil.isFollowedByReqUser(reqUser, user));
+        userDto.setFollowed(userService.isFollowing(reqUser.getId(), user.getId()));
 
         return new ResponseEntity<>(userDto, HttpStatus.ACCEPTED);
     }
+
+    /**
+     * Builds a page of user summaries from a page of follows, paginated by follow time.
+     *
+     * @param follows  The follows of the page.
+     * @param userOf   Function selecting the listed side of a follow.
+     * @param pageSize The requested page size.
+     * @return The page of UserDTOs and the cursor of the next page.
+     */
+    private CursorPageDTO<UserDTO> toUserPage(List<Follow> follows, Function<Follow, User> userOf, int pageSize) {
+        return CursorPageDTO.<UserDTO>builder()
+                .items(UserDtoMapper.toUserDTOs(follows.stream().map(userOf).toList()))
+                .nextCursor(PaginationUtil.nextCursor(follows, pageSize,
+                        follow -> new PageCursor(follow.getCreatedAt(), follow.getId())))
+                .build();
+    }
 }
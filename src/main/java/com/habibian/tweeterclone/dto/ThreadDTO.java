@@ -0,0 +1,18 @@
+package com.habibian.tweeterclone.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) representing a tweet within its conversation.
+ */
+@Data
+@Builder
+public class ThreadDTO {
+    private List<TweetDTO> ancestors;
+    private TweetDTO tweet;
+    private List<TweetDTO> descendants;
+    private boolean truncated;
+}
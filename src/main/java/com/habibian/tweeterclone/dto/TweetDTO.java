@@ -1,7 +1,11 @@
 package com.habibian.tweeterclone.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -11,7 +15,13 @@ import java.util.List;
  */
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class TweetDTO {
+    /**
+     * Tweet IDs are 64-bit, beyond the integers JavaScript represents exactly, so they are serialized as strings.
+     */
+    @JsonSerialize(using = ToStringSerializer.class)
     private Long id;
     private String content;
     private String image;
@@ -23,6 +33,7 @@ public class TweetDTO {
     private int totalRetweets;
     private boolean isLiked;
     private boolean isRetweet;
-    private List<Long> retweetUserIds;
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long replyForId;
     private List<TweetDTO> replyTweets;
 }
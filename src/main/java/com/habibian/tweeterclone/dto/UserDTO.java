@@ -1,16 +1,17 @@
 package com.habibian.tweeterclone.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
-
-import java.util.ArrayList;
-import java.util.List;
+import lombok.NoArgsConstructor;
 
 /**
  * Data Transfer Object (DTO) representing user information.
  */
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class UserDTO {
     private Long id;
     private String fullname;
@@ -24,8 +25,8 @@ public class UserDTO {
     private String bio;
     private boolean req_user;
     private boolean login_with_google;
-    private List<UserDTO> followers = new ArrayList<>();
-    private List<UserDTO> followings = new ArrayList<>();
+    private int followersCount;
+    private int followingsCount;
     private boolean followed;
     private boolean isVerified;
 }
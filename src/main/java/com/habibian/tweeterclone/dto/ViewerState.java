@@ -0,0 +1,56 @@
+package com.habibian.tweeterclone.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+
+/**
+ * The requesting user's relation to a batch of tweets: which of them they liked and retweeted.
+ * <p>
+ * Loaded with one query per relation for a whole page of tweets, so that mapping each tweet only
+ * needs a hash lookup.
+ */
+@Getter
+@AllArgsConstructor
+public class ViewerState {
+
+    /**
+     * The IDs of the tweets liked by the requesting user.
+     */
+    private final Set<Long> likedTweetIds;
+
+    /**
+     * The IDs of the tweets retweeted by the requesting user.
+     */
+    private final Set<Long> retweetedTweetIds;
+
+    /**
+     * Creates a viewer state in which no tweet is liked or retweeted.
+     *
+     * @return An empty viewer state.
+     */
+    public static ViewerState empty() {
+        return new ViewerState(Set.of(), Set.of());
+    }
+
+    /**
+     * Checks if a tweet is liked by the requesting user.
+     *
+     * @param tweetId The ID of the tweet.
+     * @return true if the tweet is liked; otherwise, false.
+     */
+    public boolean isLiked(Long tweetId) {
+        return likedTweetIds.contains(tweetId);
+    }
+
+    /**
+     * Checks if a tweet is retweeted by the requesting user.
+     *
+     * @param tweetId The ID of the tweet.
+     * @return true if the tweet is retweeted; otherwise, false.
+     */
+    public boolean isRetweeted(Long tweetId) {
+        return retweetedTweetIds.contains(tweetId);
+    }
+}
@@ -3,8 +3,9 @@ package com.habibian.tweeterclone.dto.mapper;
 import com.habibian.tweeterclone.dto.LikeDTO;
 import com.habibian.tweeterclone.dto.TweetDTO;
 import com.habibian.tweeterclone.dto.UserDTO;
+import com.habibian.tweeterclone.dto.ViewerState;
 import com.habibian.tweeterclone.model.Like;
-import com.habibian.tweeterclone.model.User;
+import com.habibian.tweeterclone.repository.projection.LikerView;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -17,13 +18,13 @@ public class LikeDtoMapper {
     /**
      * Converts a Like entity to a LikeDTO.
      *
-     * @param like    The Like entity to be converted.
-     * @param reqUser The requesting user.
+     * @param like        The Like entity to be converted.
+     * @param viewerState The requesting user's likes and retweets among the liked tweet and its replies.
      * @return The corresponding LikeDTO.
      */
-    public static LikeDTO toLikeDto(Like like, User reqUser) {
+    public static LikeDTO toLikeDto(Like like, ViewerState viewerState) {
         UserDTO userDto = UserDtoMapper.toUserDto(like.getUser());
-        TweetDTO tweetDto = TweetDtoMapper.toTweetDto(like.getTweet(), reqUser);
+        TweetDTO tweetDto = TweetDtoMapper.toTweetDto(like.getTweet(), viewerState);
 
         return LikeDTO.builder()
                 .id(like.getId())
@@ -33,19 +34,18 @@ public class LikeDtoMapper {
     }
 
     /**
-     * Converts a list of Like entities to a list of LikeDTOs.
+     * Converts a list of likers of a tweet to a list of summary UserDTOs.
      *
-     * @param likes   The list of Like entities to be converted.
-     * @param reqUser The requesting user.
-     * @return The corresponding list of LikeDTOs.
+     * @param likers The likers to be converted.
+     * @return The corresponding list of summary UserDTOs.
      */
-    public static List<LikeDTO> toLikeDTOS(List<Like> likes, User reqUser) {
-        List<LikeDTO> likeDTOS = new ArrayList<>();
+    public static List<UserDTO> toLikerDTOS(List<LikerView> likers) {
+        List<UserDTO> userDTOS = new ArrayList<>();
 
-        for (Like like : likes) {
-            likeDTOS.add(toLikeDto(like, reqUser));
+        for (LikerView liker : likers) {
+            userDTOS.add(UserDtoMapper.toUserSummaryDto(liker));
         }
 
-        return likeDTOS;
+        return userDTOS;
     }
 }
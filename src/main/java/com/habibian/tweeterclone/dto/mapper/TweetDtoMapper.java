@@ -1,10 +1,10 @@
 package com.habibian.tweeterclone.dto.mapper;
 
+import com.habibian.tweeterclone.dto.ThreadDTO;
 import com.habibian.tweeterclone.dto.TweetDTO;
 import com.habibian.tweeterclone.dto.UserDTO;
+import com.habibian.tweeterclone.dto.ViewerState;
 import com.habibian.tweeterclone.model.Tweet;
-import com.habibian.tweeterclone.model.User;
-import com.habibian.tweeterclone.util.TweetUtil;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -15,89 +15,81 @@ import java.util.List;
 public class TweetDtoMapper {
 
     /**
-     * Converts a Tweet entity to a TweetDTO.
+     * Converts a Tweet entity to a TweetDTO, including a preview of its first replies.
+     * The remaining replies are served page by page by the replies endpoint.
      *
-     * @param tweet   The Tweet entity to be converted.
-     * @param reqUser The requesting user.
+     * @param tweet        The Tweet entity to be converted.
+     * @param replyPreview The first replies to the tweet.
+     * @param viewerState  The requesting user's likes and retweets among the tweet and its replies.
      * @return The corresponding TweetDTO.
      */
-    // TODO Refactor: remove duplicated codes
-    public static TweetDTO toTweetDto(Tweet tweet, User reqUser) {
-        UserDTO user = UserDtoMapper.toUserDto(reqUser);
+    public static TweetDTO toTweetDto(Tweet tweet, List<Tweet> replyPreview, ViewerState viewerState) {
+        TweetDTO tweetDTO = toTweetDto(tweet, viewerState);
+        tweetDTO.setReplyTweets(toTweetDTOS(replyPreview, viewerState));
 
-        boolean isLiked = TweetUtil.isLikedByReqUser(reqUser, tweet);
-        boolean isRetweet = TweetUtil.isRetweetedByReqUser(reqUser, tweet);
-
-        List<Long> retweetUsersId = new ArrayList<>();
-        for (User retweetUser : tweet.getRetweetUser()) {
-            retweetUsersId.add(retweetUser.getId());
-        }
-
-        return TweetDTO.builder()
-                .id(tweet.getId())
-                .content(tweet.getContent())
-                .createdAt(tweet.getCreatedAt())
-                .image(tweet.getImage())
-                .totalLikes(tweet.getLikes().size())
-                .totalReplies(tweet.getReplyTweets().size())
-                .totalRetweets(tweet.getRetweetUser().size())
-                .user(user)
-                .isLiked(isLiked)
-                .isRetweet(isRetweet)
-                .retweetUserIds(retweetUsersId)
-                .replyTweets(toTweetDTOS(tweet.getReplyTweets(), reqUser))
-                .video(tweet.getVideo())
-                .build();
+        return tweetDTO;
     }
 
     /**
      * Converts a list of Tweet entities to a list of TweetDTOs.
      *
-     * @param tweets  The list of Tweet entities to be converted.
-     * @param reqUser The requesting user.
+     * @param tweets      The list of Tweet entities to be converted.
+     * @param viewerState The requesting user's likes and retweets among the tweets.
      * @return The corresponding list of TweetDTOs.
      */
-    public static List<TweetDTO> toTweetDTOS(List<Tweet> tweets, User reqUser) {
+    public static List<TweetDTO> toTweetDTOS(List<Tweet> tweets, ViewerState viewerState) {
         List<TweetDTO> tweetDTOS = new ArrayList<>();
 
         for (Tweet tweet : tweets) {
-            tweetDTOS.add(toReplyTweetDto(tweet, reqUser));
+            tweetDTOS.add(toTweetDto(tweet, viewerState));
         }
 
         return tweetDTOS;
     }
 
     /**
-     * Converts a Reply Tweet entity to a TweetDTO.
+     * Converts a Tweet entity to a TweetDTO, without its replies.
      *
-     * @param tweet   The Reply Tweet entity to be converted.
-     * @param reqUser The requesting user.
+     * @param tweet       The Tweet entity to be converted.
+     * @param viewerState The requesting user's likes and retweets.
      * @return The corresponding TweetDTO.
      */
-    private static TweetDTO toReplyTweetDto(Tweet tweet, User reqUser) {
-        UserDTO user = UserDtoMapper.toUserDto(reqUser);
-
-        boolean isLiked = TweetUtil.isLikedByReqUser(reqUser, tweet);
-        boolean isRetweet = TweetUtil.isRetweetedByReqUser(reqUser, tweet);
-
-        List<Long> retweetUsersId = new ArrayList<>();
-        for (User retweetUser : tweet.getRetweetUser()) {
-            retweetUsersId.add(retweetUser.getId());
-        }
+    public static TweetDTO toTweetDto(Tweet tweet, ViewerState viewerState) {
+        UserDTO user = UserDtoMapper.toUserSummaryDto(tweet.getUser());
 
         return TweetDTO.builder()
                 .id(tweet.getId())
                 .content(tweet.getContent())
                 .createdAt(tweet.getCreatedAt())
                 .image(tweet.getImage())
-                .totalLikes(tweet.getLikes().size())
-                .totalReplies(tweet.getReplyTweets().size())
-                .totalRetweets(tweet.getRetweetUser().size())
+                .totalLikes(tweet.getLikeCount())
+                .totalReplies(tweet.getReplyCount())
+                .totalRetweets(tweet.getRetweetCount())
                 .user(user)
-                .isLiked(isLiked)
-                .isRetweet(isRetweet)
-                .retweetUserIds(retweetUsersId)
+                .isLiked(viewerState.isLiked(tweet.getId()))
+                .isRetweet(viewerState.isRetweeted(tweet.getId()))
+                .replyForId(tweet.getReplyFor() == null ? null : tweet.getReplyFor().getId())
                 .video(tweet.getVideo())
                 .build();
     }
+
+    /**
+     * Converts a tweet and the loaded part of its conversation to a ThreadDTO.
+     *
+     * @param ancestors   The ancestors of the tweet, root first.
+     * @param tweet       The tweet.
+     * @param descendants The loaded descendants of the tweet, in thread order.
+     * @param truncated   Whether more descendants exist than were loaded.
+     * @param viewerState The requesting user's likes and retweets among the tweets of the thread.
+     * @return The corresponding ThreadDTO.
+     */
+    public static ThreadDTO toThreadDto(List<Tweet> ancestors, Tweet tweet, List<Tweet> descendants,
+                                        boolean truncated, ViewerState viewerState) {
+        return ThreadDTO.builder()
+                .ancestors(toTweetDTOS(ancestors, viewerState))
+                .tweet(toTweetDto(tweet, viewerState))
+                .descendants(toTweetDTOS(descendants, viewerState))
+                .truncated(truncated)
+                .build();
+    }
 }
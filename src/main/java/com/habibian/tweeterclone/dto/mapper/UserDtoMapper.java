@@ -2,6 +2,7 @@ package com.habibian.tweeterclone.dto.mapper;
 
 import com.habibian.tweeterclone.dto.UserDTO;
 import com.habibian.tweeterclone.model.User;
+import com.habibian.tweeterclone.repository.projection.UserSummaryView;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -26,8 +27,8 @@ public class UserDtoMapper {
                 .backgroundImage(user.getBackgroundImage())
                 .bio(user.getBio())
                 .birthDate(user.getBirthDate())
-                .followers(toUserDTOs(user.getFollowers()))
-                .followings(toUserDTOs(user.getFollowings()))
+                .followersCount(user.getFollowersCount())
+                .followingsCount(user.getFollowingsCount())
                 .login_with_google(user.isLogin_with_google())
                 .location(user.getLocation())
 //                .isVerified(false) TODO
@@ -44,15 +45,40 @@ public class UserDtoMapper {
         List<UserDTO> userDTOs = new ArrayList<>();
 
         for (User user : users) {
-            UserDTO userDTO = UserDTO.builder()
-                    .id(user.getId())
-                    .email(user.getEmail())
-                    .fullname(user.getFullname())
-                    .image(user.getImage())
-                    .build();
-            userDTOs.add(userDTO);
+            userDTOs.add(toUserSummaryDto(user));
         }
 
         return userDTOs;
     }
+
+    /**
+     * Converts a User entity to a UserDTO carrying only the fields needed to display the user
+     * next to content, such as the author of a tweet.
+     *
+     * @param user The User entity to be converted.
+     * @return The corresponding summary UserDTO.
+     */
+    public static UserDTO toUserSummaryDto(User user) {
+        return UserDTO.builder()
+                .id(user.getId())
+                .email(user.getEmail())
+                .fullname(user.getFullname())
+                .image(user.getImage())
+                .build();
+    }
+
+    /**
+     * Converts a user summary projection to a summary UserDTO.
+     *
+     * @param user The user summary to be converted.
+     * @return The corresponding summary UserDTO.
+     */
+    public static UserDTO toUserSummaryDto(UserSummaryView user) {
+        return UserDTO.builder()
+                .id(user.getId())
+                .email(user.getEmail())
+                .fullname(user.getFullname())
+                .image(user.getImage())
+                .build();
+    }
 }
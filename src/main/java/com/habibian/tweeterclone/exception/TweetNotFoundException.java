@@ -0,0 +1,21 @@
+package com.habibian.tweeterclone.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a request targets a tweet that does not exist.
+ * Clients receive 404 Not Found.
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class TweetNotFoundException extends TweetException {
+
+    /**
+     * Constructs a new TweetNotFoundException for the given tweet ID.
+     *
+     * @param tweetId the ID of the missing tweet.
+     */
+    public TweetNotFoundException(Long tweetId) {
+        super("Tweet not found with id " + tweetId);
+    }
+}
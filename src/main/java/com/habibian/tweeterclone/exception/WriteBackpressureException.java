@@ -0,0 +1,21 @@
+package com.habibian.tweeterclone.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a write cannot be accepted because the write-behind queue is full.
+ * Clients receive 429 Too Many Requests and should retry later.
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class WriteBackpressureException extends TweetException {
+
+    /**
+     * Constructs a new WriteBackpressureException with the specified detail message.
+     *
+     * @param message the detail message.
+     */
+    public WriteBackpressureException(String message) {
+        super(message);
+    }
+}
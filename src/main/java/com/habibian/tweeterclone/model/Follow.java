@@ -0,0 +1,50 @@
+package com.habibian.tweeterclone.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents one user following another in the application.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "follows", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_follows_follower_followee", columnNames = {"follower_id", "followee_id"})
+}, indexes = {
+        @Index(name = "idx_follows_followee_created_at", columnList = "followee_id, created_at, id"),
+        @Index(name = "idx_follows_follower_created_at", columnList = "follower_id, created_at, id")
+})
+public class Follow {
+
+    /**
+     * The unique identifier for the follow.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    /**
+     * The user who follows.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "follower_id", nullable = false)
+    private User follower;
+
+    /**
+     * The user who is followed.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "followee_id", nullable = false)
+    private User followee;
+
+    /**
+     * The time the follow started.
+     */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
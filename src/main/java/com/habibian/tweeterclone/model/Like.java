@@ -4,33 +4,46 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.LocalDateTime;
+
 /**
  * Represents a like in the application.
  */
 @Getter
 @Setter
 @Entity
-@Table(name = "likes")
+@Table(name = "likes", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_likes_user_tweet", columnNames = {"user_id", "tweet_id"})
+}, indexes = {
+        @Index(name = "idx_likes_user_created_at", columnList = "user_id, created_at, tweet_id"),
+        @Index(name = "idx_likes_tweet_created_at", columnList = "tweet_id, created_at, user_id")
+})
 public class Like {
     /**
      * The unique identifier for the like.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id", nullable = false)
     private Long id;
 
     /**
      * The user who gave the like.
      */
-    @ManyToOne
-    @JoinColumn(name = "user_id")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
     /**
      * The tweet that received the like.
      */
-    @ManyToOne
-    @JoinColumn(name = "tweet_id")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "tweet_id", nullable = false)
     private Tweet tweet;
+
+    /**
+     * The time of the like.
+     */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
 }
@@ -0,0 +1,50 @@
+package com.habibian.tweeterclone.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents a user retweeting a tweet in the application.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "retweets", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_retweets_user_tweet", columnNames = {"user_id", "tweet_id"})
+}, indexes = {
+        @Index(name = "idx_retweets_user_created_at", columnList = "user_id, created_at, tweet_id"),
+        @Index(name = "idx_retweets_tweet_created_at", columnList = "tweet_id, created_at, id")
+})
+public class Retweet {
+
+    /**
+     * The unique identifier for the retweet.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    /**
+     * The user who retweeted.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    /**
+     * The retweeted tweet.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "tweet_id", nullable = false)
+    private Tweet tweet;
+
+    /**
+     * The time of the retweet.
+     */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,60 @@
+package com.habibian.tweeterclone.model;
+
+import com.habibian.tweeterclone.util.SnowflakeIdGenerator;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+
+import java.lang.reflect.Member;
+import java.util.Map;
+
+/**
+ * Hibernate id generator of the ids annotated with {@link SnowflakeId}, backed by a {@link SnowflakeIdGenerator}.
+ * <p>
+ * The node id and the maximum clock skew are read from the Hibernate settings {@link #NODE_ID} and
+ * {@link #MAX_CLOCK_SKEW_MILLIS}, which default to 0 and 1000 ms.
+ */
+public class SnowflakeIdentifierGenerator implements IdentifierGenerator {
+
+    /**
+     * The Hibernate setting holding the node id of this instance.
+     */
+    public static final String NODE_ID = "tweeter.snowflake.node-id";
+
+    /**
+     * The Hibernate setting holding how far back, in milliseconds, the clock may move before generation fails.
+     */
+    public static final String MAX_CLOCK_SKEW_MILLIS = "tweeter.snowflake.max-clock-skew-ms";
+
+    private final SnowflakeIdGenerator generator;
+
+    /**
+     * Creates the generator of an annotated id.
+     *
+     * @param config  The annotation.
+     * @param member  The annotated id member.
+     * @param context The creation context, giving access to the Hibernate settings.
+     */
+    public SnowflakeIdentifierGenerator(SnowflakeId config, Member member, CustomIdGeneratorCreationContext context) {
+        Map<String, Object> settings = context.getServiceRegistry().getService(ConfigurationService.class).getSettings();
+
+        this.generator = new SnowflakeIdGenerator(
+                ConfigurationHelper.getLong(NODE_ID, settings, 0),
+                ConfigurationHelper.getLong(MAX_CLOCK_SKEW_MILLIS, settings, 1000)
+        );
+    }
+
+    /**
+     * Issues the id of a new entity.
+     *
+     * @param session The session persisting the entity.
+     * @param object  The entity.
+     * @return The id.
+     */
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return generator.nextId();
+    }
+}
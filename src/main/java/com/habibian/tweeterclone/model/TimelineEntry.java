@@ -0,0 +1,35 @@
+package com.habibian.tweeterclone.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents a tweet materialized into a user's home timeline.
+ * <p>
+ * Entries are written when a followed user tweets or retweets (fan-out on write), so reading a home
+ * timeline is a single range scan over {@code (owner_id, created_at)}.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "home_timeline", indexes = {
+        @Index(name = "idx_home_timeline_owner_created_at", columnList = "owner_id, created_at, tweet_id"),
+        @Index(name = "idx_home_timeline_tweet", columnList = "tweet_id")
+})
+public class TimelineEntry {
+
+    /**
+     * The owner and tweet of the entry.
+     */
+    @EmbeddedId
+    private TimelineEntryId id;
+
+    /**
+     * The time the tweet entered the timeline, used for ordering.
+     */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
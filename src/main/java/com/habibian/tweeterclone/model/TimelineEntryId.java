@@ -0,0 +1,31 @@
+package com.habibian.tweeterclone.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Composite key of a {@link TimelineEntry}: one tweet in one user's home timeline.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class TimelineEntryId implements Serializable {
+
+    /**
+     * The ID of the user owning the home timeline.
+     */
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    /**
+     * The ID of the tweet pushed into the timeline.
+     */
+    @Column(name = "tweet_id", nullable = false)
+    private Long tweetId;
+}
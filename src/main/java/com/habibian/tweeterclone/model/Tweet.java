@@ -1,8 +1,11 @@
 package com.habibian.tweeterclone.model;
 
+import com.habibian.tweeterclone.util.TweetUtil;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -14,13 +17,27 @@ import java.util.List;
 @Getter
 @Setter
 @Entity
-@Table(name = "tweets")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Tweet.CACHE_REGION)
+@Table(name = "tweets", indexes = {
+        @Index(name = "idx_tweets_is_tweet_id", columnList = "is_tweet, id"),
+        @Index(name = "idx_tweets_user_created_at", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_tweets_reply_for_id", columnList = "reply_for_id, id"),
+        @Index(name = "idx_tweets_conversation_path", columnList = "conversation_id, path")
+})
 public class Tweet {
+
     /**
-     * The unique identifier for the tweet.
+     * The second-level cache region holding tweets.
+     */
+    public static final String CACHE_REGION = "tweets";
+
+    /**
+     * The unique identifier for the tweet. Time-ordered: tweets sort by id in creation order, so lists of
+     * tweets are ordered and paged by id alone.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @SnowflakeId
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -42,7 +59,7 @@ public class Tweet {
     /**
      * The user who posted the tweet.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
@@ -53,22 +70,30 @@ public class Tweet {
     private List<Like> likes = new ArrayList<>();
 
     /**
-     * The list of reply tweets associated with the tweet.
+     * The tweet to which this tweet is a reply.
      */
-    @OneToMany
-    private List<Tweet> replyTweets = new ArrayList<>();
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "reply_for_id")
+    private Tweet replyFor;
 
     /**
-     * The list of users who retweeted the tweet.
+     * The ID of the root tweet of the conversation this reply belongs to, or null for a root tweet.
      */
-    @ManyToMany
-    private List<User> retweetUser = new ArrayList<>();
+    @Column(name = "conversation_id")
+    private Long conversationId;
 
     /**
-     * The tweet to which this tweet is a reply.
+     * The materialized path of the tweet's ancestors, root first, as fixed-width segments built by
+     * {@link com.habibian.tweeterclone.util.TweetUtil#pathSegment(Long)}. Empty for a root tweet.
      */
-    @ManyToOne
-    private Tweet replyFor;
+    @Column(name = "path", nullable = false, length = TweetUtil.MAX_THREAD_DEPTH * TweetUtil.PATH_SEGMENT_LENGTH)
+    private String path = "";
+
+    /**
+     * The number of ancestors of the tweet, 0 for a root tweet.
+     */
+    @Column(name = "depth", nullable = false)
+    private int depth;
 
     /**
      * Flag indicating if the tweet is a reply.
@@ -78,7 +103,27 @@ public class Tweet {
     /**
      * Flag indicating if the object is a tweet.
      */
+    @Column(name = "is_tweet")
     private Boolean isTweet;
 
+    @Column(name = "created_at")
     private LocalDateTime createdAt;
+
+    /**
+     * The number of likes of the tweet. Maintained by atomic increments only, never by entity updates.
+     */
+    @Column(name = "like_count", nullable = false, updatable = false)
+    private int likeCount;
+
+    /**
+     * The number of replies to the tweet. Maintained by atomic increments only, never by entity updates.
+     */
+    @Column(name = "reply_count", nullable = false, updatable = false)
+    private int replyCount;
+
+    /**
+     * The number of retweets of the tweet. Maintained by atomic increments only, never by entity updates.
+     */
+    @Column(name = "retweet_count", nullable = false, updatable = false)
+    private int retweetCount;
 }
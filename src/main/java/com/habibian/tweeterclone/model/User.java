@@ -4,6 +4,8 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -14,14 +16,25 @@ import java.util.List;
 @Getter
 @Setter
 @Entity
-@Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_users_email", columnNames = "email")
+})
 public class User {
 
     /**
-     * The unique identifier for the user.
+     * The second-level cache region holding users.
+     */
+    public static final String CACHE_REGION = "users";
+
+    /**
+     * The unique identifier for the user, allocated from the {@code user_seq} sequence (a table on MySQL) in
+     * pooled blocks of 50, so a JDBC batch of inserts needs one sequence round trip per 50 rows.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -106,16 +119,14 @@ public class User {
     private Verification verification;
 
     /**
-     * The list of followers for the user.
+     * The number of followers of the user. Maintained by atomic increments only, never by entity updates.
      */
-    @JsonIgnore
-    @ManyToMany
-    private List<User> followers = new ArrayList<>();
+    @Column(name = "followers_count", nullable = false, updatable = false)
+    private int followersCount;
 
     /**
-     * The list of users the user is following.
+     * The number of users the user is following. Maintained by atomic increments only, never by entity updates.
      */
-    @JsonIgnore
-    @ManyToMany
-    private List<User> followings = new ArrayList<>();
+    @Column(name = "followings_count", nullable = false, updatable = false)
+    private int followingsCount;
 }
\ No newline at end of file
@@ -0,0 +1,112 @@
+package com.habibian.tweeterclone.repository;
+
+import com.habibian.tweeterclone.cache.EntityCacheEvictor;
+import com.habibian.tweeterclone.cache.TweetCounterCache;
+import com.habibian.tweeterclone.model.Tweet;
+import com.habibian.tweeterclone.model.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for the atomic counter updates of users and tweets.
+ * <p>
+ * The updates are plain JDBC statements in the surrounding transaction. A bulk update issued through
+ * Hibernate would clear the whole second-level cache region of the entity, so instead only the updated
+ * entity is evicted, together with the shared counters of an updated tweet.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CounterRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityCacheEvictor entityCacheEvictor;
+    private final TweetCounterCache tweetCounterCache;
+
+    /**
+     * Atomically adds a delta to the like counter of a tweet.
+     *
+     * @param tweetId The ID of the tweet.
+     * @param delta   The value to add.
+     * @return The number of updated tweets.
+     */
+    public int incrementLikeCount(Long tweetId, int delta) {
+        return updateTweet("UPDATE tweets SET like_count = like_count + ? WHERE id = ?", tweetId, delta);
+    }
+
+    /**
+     * Atomically adds a delta to the reply counter of a tweet.
+     *
+     * @param tweetId The ID of the tweet.
+     * @param delta   The value to add.
+     * @return The number of updated tweets.
+     */
+    public int incrementReplyCount(Long tweetId, int delta) {
+        return updateTweet("UPDATE tweets SET reply_count = reply_count + ? WHERE id = ?", tweetId, delta);
+    }
+
+    /**
+     * Atomically adds a delta to the retweet counter of a tweet.
+     *
+     * @param tweetId The ID of the tweet.
+     * @param delta   The value to add.
+     * @return The number of updated tweets.
+     */
+    public int incrementRetweetCount(Long tweetId, int delta) {
+        return updateTweet("UPDATE tweets SET retweet_count = retweet_count + ? WHERE id = ?", tweetId, delta);
+    }
+
+    /**
+     * Atomically adds a delta to the follower counter of a user.
+     *
+     * @param userId The ID of the user.
+     * @param delta  The value to add.
+     * @return The number of updated users.
+     */
+    public int incrementFollowersCount(Long userId, int delta) {
+        return updateUser("UPDATE users SET followers_count = followers_count + ? WHERE id = ?", userId, delta);
+    }
+
+    /**
+     * Atomically adds a delta to the following counter of a user.
+     *
+     * @param userId The ID of the user.
+     * @param delta  The value to add.
+     * @return The number of updated users.
+     */
+    public int incrementFollowingsCount(Long userId, int delta) {
+        return updateUser("UPDATE users SET followings_count = followings_count + ? WHERE id = ?", userId, delta);
+    }
+
+    /**
+     * Runs a counter update on a tweet and evicts the tweet from the second-level cache and its counters
+     * from the shared cache.
+     *
+     * @param sql     The update statement, taking the delta and the tweet ID.
+     * @param tweetId The ID of the tweet.
+     * @param delta   The value to add.
+     * @return The number of updated tweets.
+     */
+    private int updateTweet(String sql, Long tweetId, int delta) {
+        int updated = jdbcTemplate.update(sql, delta, tweetId);
+        entityCacheEvictor.evict(Tweet.class, tweetId);
+        tweetCounterCache.evict(tweetId);
+
+        return updated;
+    }
+
+    /**
+     * Runs a counter update on a user and evicts the user from the second-level cache.
+     *
+     * @param sql    The update statement, taking the delta and the user ID.
+     * @param userId The ID of the user.
+     * @param delta  The value to add.
+     * @return The number of updated users.
+     */
+    private int updateUser(String sql, Long userId, int delta) {
+        int updated = jdbcTemplate.update(sql, delta, userId);
+        entityCacheEvictor.evict(User.class, userId);
+
+        return updated;
+    }
+}
@@ -0,0 +1,143 @@
+package com.habibian.tweeterclone.repository;
+
+import com.habibian.tweeterclone.model.Follow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for managing Follow entities, the edges of the follow graph.
+ */
+public interface FollowRepository extends JpaRepository<Follow, Long> {
+
+    /**
+     * Checks if a user follows another user.
+     *
+     * @param followerId The ID of the following user.
+     * @param followeeId The ID of the followed user.
+     * @return true if the follow exists; otherwise, false.
+     */
+    boolean existsByFollower_IdAndFollowee_Id(Long followerId, Long followeeId);
+
+    /**
+     * Creates a follow. An existing follow is left untouched.
+     *
+     * @param followerId The ID of the following user.
+     * @param followeeId The ID of the followed user.
+     * @param createdAt  The time the follow starts.
+     * @return The number of follows created.
+     */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "follows"))
+    @Query(nativeQuery = true, value = "INSERT IGNORE INTO follows (follower_id, followee_id, created_at) " +
+            "VALUES (:followerId, :followeeId, :createdAt)")
+    int insertFollow(@Param("followerId") Long followerId,
+                     @Param("followeeId") Long followeeId,
+                     @Param("createdAt") LocalDateTime createdAt);
+
+    /**
+     * Removes a follow.
+     *
+     * @param followerId The ID of the following user.
+     * @param followeeId The ID of the followed user.
+     * @return The number of follows removed.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Follow f WHERE f.follower.id = :followerId AND f.followee.id = :followeeId")
+    int deleteFollow(@Param("followerId") Long followerId, @Param("followeeId") Long followeeId);
+
+    /**
+     * Counts the followers of a user.
+     *
+     * @param followeeId The ID of the followed user.
+     * @return The number of followers.
+     */
+    long countByFollowee_Id(Long followeeId);
+
+    /**
+     * Counts the users a user is following.
+     *
+     * @param followerId The ID of the following user.
+     * @return The number of followed users.
+     */
+    long countByFollower_Id(Long followerId);
+
+    /**
+     * Retrieves the IDs of the users followed by a user that have more than the given number of followers.
+     *
+     * @param followerId The ID of the following user.
+     * @param threshold  The follower count above which a user is returned.
+     * @return List of user IDs.
+     */
+    @Query("SELECT f.followee.id FROM Follow f WHERE f.follower.id = :followerId " +
+            "AND f.followee.followersCount > :threshold")
+    List<Long> findFollowedCelebrityIds(@Param("followerId") Long followerId, @Param("threshold") long threshold);
+
+    /**
+     * Retrieves the first page of a user's followers, most recent follow first.
+     *
+     * @param followeeId The ID of the followed user.
+     * @param pageable   The page size limit.
+     * @return List of follows with their followers.
+     */
+    @Query("SELECT f FROM Follow f JOIN FETCH f.follower WHERE f.followee.id = :followeeId " +
+            "ORDER BY f.createdAt DESC, f.id DESC")
+    List<Follow> findFollowers(@Param("followeeId") Long followeeId, Pageable pageable);
+
+    /**
+     * Retrieves the page of a user's followers that follows the given keyset position, most recent follow first.
+     *
+     * @param followeeId The ID of the followed user.
+     * @param createdAt  The follow time of the last follow of the previous page.
+     * @param id         The ID of the last follow of the previous page.
+     * @param pageable   The page size limit.
+     * @return List of follows with their followers.
+     */
+    @Query("SELECT f FROM Follow f JOIN FETCH f.follower WHERE f.followee.id = :followeeId " +
+            "AND (f.createdAt < :createdAt OR (f.createdAt = :createdAt AND f.id < :id)) " +
+            "ORDER BY f.createdAt DESC, f.id DESC")
+    List<Follow> findFollowersBefore(@Param("followeeId") Long followeeId,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id,
+                                     Pageable pageable);
+
+    /**
+     * Retrieves the first page of the users a user is following, most recent follow first.
+     *
+     * @param followerId The ID of the following user.
+     * @param pageable   The page size limit.
+     * @return List of follows with their followed users.
+     */
+    @Query("SELECT f FROM Follow f JOIN FETCH f.followee WHERE f.follower.id = :followerId " +
+            "ORDER BY f.createdAt DESC, f.id DESC")
+    List<Follow> findFollowings(@Param("followerId") Long followerId, Pageable pageable);
+
+    /**
+     * Retrieves the page of the users a user is following that follows the given keyset position,
+     * most recent follow first.
+     *
+     * @param followerId The ID of the following user.
+     * @param createdAt  The follow time of the last follow of the previous page.
+     * @param id         The ID of the last follow of the previous page.
+     * @param pageable   The page size limit.
+     * @return List of follows with their followed users.
+     */
+    @Query("SELECT f FROM Follow f JOIN FETCH f.followee WHERE f.follower.id = :followerId " +
+            "AND (f.createdAt < :createdAt OR (f.createdAt = :createdAt AND f.id < :id)) " +
+            "ORDER BY f.createdAt DESC, f.id DESC")
+    List<Follow> findFollowingsBefore(@Param("followerId") Long followerId,
+                                      @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") Long id,
+                                      Pageable pageable);
+}
@@ -1,11 +1,22 @@
 package com.habibian.tweeterclone.repository;
 
 import com.habibian.tweeterclone.model.Like;
+import com.habibian.tweeterclone.repository.projection.LikedTweetView;
+import com.habibian.tweeterclone.repository.projection.LikerView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Repository interface for performing CRUD operations on Like entities.
@@ -13,20 +24,110 @@ import java.util.List;
 public interface LikeRepository extends JpaRepository<Like, Long> {
 
     /**
-     * Checks if a like exists for a specific user and tweet.
+     * Checks if a user has liked a tweet.
      *
      * @param userId  The ID of the user.
      * @param tweetId The ID of the tweet.
-     * @return The Like entity if the like exists; otherwise, null.
+     * @return true if the like exists; otherwise, false.
      */
-    @Query("SELECT l FROM Like l WHERE l.user.id = :userId AND l.tweet.id = :tweetId")
-    Like isLikeExist(@Param("userId") Long userId, @Param("tweetId") Long tweetId);
+    boolean existsByUser_IdAndTweet_Id(Long userId, Long tweetId);
 
     /**
-     * Retrieves all likes for a specific tweet.
+     * Creates a like. An existing like of the same user on the same tweet is left untouched.
      *
+     * @param userId    The ID of the user.
+     * @param tweetId   The ID of the tweet.
+     * @param createdAt The time of the like.
+     * @return The number of likes created.
+     */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "likes"))
+    @Query(nativeQuery = true, value = "INSERT IGNORE INTO likes (user_id, tweet_id, created_at) " +
+            "VALUES (:userId, :tweetId, :createdAt)")
+    int insertLike(@Param("userId") Long userId,
+                   @Param("tweetId") Long tweetId,
+                   @Param("createdAt") LocalDateTime createdAt);
+
+    /**
+     * Removes the like of a user on a tweet.
+     *
+     * @param userId  The ID of the user.
      * @param tweetId The ID of the tweet.
-     * @return A list of Like entities associated with the tweet.
+     * @return The number of likes removed.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Like l WHERE l.user.id = :userId AND l.tweet.id = :tweetId")
+    int deleteLike(@Param("userId") Long userId, @Param("tweetId") Long tweetId);
+
+    /**
+     * Retrieves the first page of the users who liked a tweet, most recent like first.
+     *
+     * @param tweetId  The ID of the tweet.
+     * @param pageable The page size limit.
+     * @return List of likers with their like times.
+     */
+    @Query("SELECT u.id AS id, u.fullname AS fullname, u.email AS email, u.image AS image, " +
+            "l.createdAt AS likedAt FROM Like l JOIN l.user u WHERE l.tweet.id = :tweetId " +
+            "ORDER BY l.createdAt DESC, l.user.id DESC")
+    List<LikerView> findLikers(@Param("tweetId") Long tweetId, Pageable pageable);
+
+    /**
+     * Retrieves the page of the users who liked a tweet that follows the given keyset position,
+     * most recent like first.
+     *
+     * @param tweetId   The ID of the tweet.
+     * @param createdAt The like time of the last liker of the previous page.
+     * @param userId    The ID of the last liker of the previous page.
+     * @param pageable  The page size limit.
+     * @return List of likers with their like times.
+     */
+    @Query("SELECT u.id AS id, u.fullname AS fullname, u.email AS email, u.image AS image, " +
+            "l.createdAt AS likedAt FROM Like l JOIN l.user u WHERE l.tweet.id = :tweetId " +
+            "AND (l.createdAt < :createdAt OR (l.createdAt = :createdAt AND l.user.id < :userId)) " +
+            "ORDER BY l.createdAt DESC, l.user.id DESC")
+    List<LikerView> findLikersBefore(@Param("tweetId") Long tweetId,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("userId") Long userId,
+                                     Pageable pageable);
+
+    /**
+     * Retrieves the first page of the tweets a user has liked, most recently liked first.
+     *
+     * @param userId   The ID of the user.
+     * @param pageable The page size limit.
+     * @return List of liked tweet IDs with their like times.
+     */
+    @Query("SELECT l.tweet.id AS tweetId, l.createdAt AS createdAt FROM Like l WHERE l.user.id = :userId " +
+            "ORDER BY l.createdAt DESC, l.tweet.id DESC")
+    List<LikedTweetView> findLikedTweets(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Retrieves the page of the tweets a user has liked that follows the given keyset position,
+     * most recently liked first.
+     *
+     * @param userId    The ID of the user.
+     * @param createdAt The like time of the last tweet of the previous page.
+     * @param tweetId   The ID of the last tweet of the previous page.
+     * @param pageable  The page size limit.
+     * @return List of liked tweet IDs with their like times.
+     */
+    @Query("SELECT l.tweet.id AS tweetId, l.createdAt AS createdAt FROM Like l WHERE l.user.id = :userId " +
+            "AND (l.createdAt < :createdAt OR (l.createdAt = :createdAt AND l.tweet.id < :tweetId)) " +
+            "ORDER BY l.createdAt DESC, l.tweet.id DESC")
+    List<LikedTweetView> findLikedTweetsBefore(@Param("userId") Long userId,
+                                               @Param("createdAt") LocalDateTime createdAt,
+                                               @Param("tweetId") Long tweetId,
+                                               Pageable pageable);
+
+    /**
+     * Retrieves which of the given tweets a user has liked.
+     *
+     * @param userId   The ID of the user.
+     * @param tweetIds The IDs of the tweets to check.
+     * @return The IDs of the liked tweets.
      */
-    List<Like> findAllByTweetId(Long tweetId);
+    @Query("SELECT l.tweet.id FROM Like l WHERE l.user.id = :userId AND l.tweet.id IN :tweetIds")
+    Set<Long> findLikedTweetIds(@Param("userId") Long userId, @Param("tweetIds") Collection<Long> tweetIds);
 }
@@ -0,0 +1,114 @@
+package com.habibian.tweeterclone.repository;
+
+import com.habibian.tweeterclone.model.Retweet;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Repository interface for managing Retweet entities.
+ */
+public interface RetweetRepository extends JpaRepository<Retweet, Long> {
+
+    /**
+     * Checks if a user has retweeted a tweet.
+     *
+     * @param userId  The ID of the user.
+     * @param tweetId The ID of the tweet.
+     * @return true if the retweet exists; otherwise, false.
+     */
+    boolean existsByUser_IdAndTweet_Id(Long userId, Long tweetId);
+
+    /**
+     * Creates a retweet. An existing retweet of the same user on the same tweet is left untouched.
+     *
+     * @param userId    The ID of the retweeting user.
+     * @param tweetId   The ID of the tweet.
+     * @param createdAt The time of the retweet.
+     * @return The number of retweets created.
+     */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "retweets"))
+    @Query(nativeQuery = true, value = "INSERT IGNORE INTO retweets (user_id, tweet_id, created_at) " +
+            "VALUES (:userId, :tweetId, :createdAt)")
+    int insertRetweet(@Param("userId") Long userId,
+                      @Param("tweetId") Long tweetId,
+                      @Param("createdAt") LocalDateTime createdAt);
+
+    /**
+     * Removes the retweet of a user on a tweet.
+     *
+     * @param userId  The ID of the retweeting user.
+     * @param tweetId The ID of the tweet.
+     * @return The number of retweets removed.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Retweet r WHERE r.user.id = :userId AND r.tweet.id = :tweetId")
+    int deleteRetweet(@Param("userId") Long userId, @Param("tweetId") Long tweetId);
+
+    /**
+     * Removes all retweets of a tweet.
+     *
+     * @param tweetId The ID of the tweet.
+     * @return The number of retweets removed.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Retweet r WHERE r.tweet.id = :tweetId")
+    int deleteAllByTweetId(@Param("tweetId") Long tweetId);
+
+    /**
+     * Retrieves the first page of a user's retweets with their tweets and authors, newest first.
+     * The page is found with a range scan of the (user_id, created_at, tweet_id) index; the rows of
+     * the page are then joined to read the tweets and their authors.
+     *
+     * @param userId   The ID of the retweeting user.
+     * @param pageable The page size limit.
+     * @return List of retweets ordered by retweet time.
+     */
+    @EntityGraph(attributePaths = {"tweet", "tweet.user"})
+    @Query("SELECT r FROM Retweet r WHERE r.user.id = :userId ORDER BY r.createdAt DESC, r.tweet.id DESC")
+    List<Retweet> findByUser(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Retrieves the page of a user's retweets that follows the given keyset position, newest first.
+     *
+     * @param userId    The ID of the retweeting user.
+     * @param createdAt The activity time of the last item of the previous page.
+     * @param tweetId   The tweet ID of the last item of the previous page.
+     * @param pageable  The page size limit.
+     * @return List of retweets ordered by retweet time.
+     */
+    @EntityGraph(attributePaths = {"tweet", "tweet.user"})
+    @Query("SELECT r FROM Retweet r WHERE r.user.id = :userId " +
+            "AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.tweet.id < :tweetId)) " +
+            "ORDER BY r.createdAt DESC, r.tweet.id DESC")
+    List<Retweet> findByUserBefore(@Param("userId") Long userId,
+                                   @Param("createdAt") LocalDateTime createdAt,
+                                   @Param("tweetId") Long tweetId,
+                                   Pageable pageable);
+
+    /**
+     * Retrieves which of the given tweets a user has retweeted.
+     *
+     * @param userId   The ID of the user.
+     * @param tweetIds The IDs of the tweets to check.
+     * @return The IDs of the retweeted tweets.
+     */
+    @Query("SELECT r.tweet.id FROM Retweet r WHERE r.user.id = :userId AND r.tweet.id IN :tweetIds")
+    Set<Long> findRetweetedTweetIds(@Param("userId") Long userId, @Param("tweetIds") Collection<Long> tweetIds);
+}
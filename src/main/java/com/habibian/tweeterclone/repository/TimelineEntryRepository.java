@@ -0,0 +1,157 @@
+package com.habibian.tweeterclone.repository;
+
+import com.habibian.tweeterclone.model.TimelineEntry;
+import com.habibian.tweeterclone.model.TimelineEntryId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for managing materialized home timeline entries.
+ */
+public interface TimelineEntryRepository extends JpaRepository<TimelineEntry, TimelineEntryId> {
+
+    /**
+     * Pushes a tweet into the home timelines of all followers of a user with one set-based insert.
+     * Entries that already exist are left untouched.
+     *
+     * @param userId    The ID of the user whose followers receive the tweet.
+     * @param tweetId   The ID of the tweet.
+     * @param createdAt The time the tweet enters the timelines.
+     * @return The number of entries inserted.
+     */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "home_timeline"))
+    @Query(nativeQuery = true, value = "INSERT IGNORE INTO home_timeline (owner_id, tweet_id, created_at) " +
+            "SELECT f.follower_id, :tweetId, :createdAt FROM follows f WHERE f.followee_id = :userId")
+    int fanOutToFollowers(@Param("userId") Long userId,
+                          @Param("tweetId") Long tweetId,
+                          @Param("createdAt") LocalDateTime createdAt);
+
+    /**
+     * Pushes a tweet into a single home timeline. An existing entry is left untouched.
+     *
+     * @param ownerId   The ID of the user owning the timeline.
+     * @param tweetId   The ID of the tweet.
+     * @param createdAt The time the tweet enters the timeline.
+     * @return The number of entries inserted.
+     */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "home_timeline"))
+    @Query(nativeQuery = true, value = "INSERT IGNORE INTO home_timeline (owner_id, tweet_id, created_at) " +
+            "VALUES (:ownerId, :tweetId, :createdAt)")
+    int insertEntry(@Param("ownerId") Long ownerId,
+                    @Param("tweetId") Long tweetId,
+                    @Param("createdAt") LocalDateTime createdAt);
+
+    /**
+     * Pushes a tweet into the home timelines of a user's followers, or moves it up to the given time
+     * where it is already present.
+     *
+     * @param userId    The ID of the user whose followers receive the tweet.
+     * @param tweetId   The ID of the tweet.
+     * @param createdAt The time the tweet enters the timelines.
+     * @return The number of affected rows, as reported by MySQL.
+     */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "home_timeline"))
+    @Query(nativeQuery = true, value = "INSERT INTO home_timeline (owner_id, tweet_id, created_at) " +
+            "SELECT f.follower_id, :tweetId, :createdAt FROM follows f WHERE f.followee_id = :userId " +
+            "ON DUPLICATE KEY UPDATE created_at = GREATEST(created_at, VALUES(created_at))")
+    int upsertToFollowers(@Param("userId") Long userId,
+                          @Param("tweetId") Long tweetId,
+                          @Param("createdAt") LocalDateTime createdAt);
+
+    /**
+     * Pushes a tweet into a single home timeline, or moves it up to the given time where it is already present.
+     *
+     * @param ownerId   The ID of the user owning the timeline.
+     * @param tweetId   The ID of the tweet.
+     * @param createdAt The time the tweet enters the timeline.
+     * @return The number of affected rows, as reported by MySQL.
+     */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "home_timeline"))
+    @Query(nativeQuery = true, value = "INSERT INTO home_timeline (owner_id, tweet_id, created_at) " +
+            "VALUES (:ownerId, :tweetId, :createdAt) " +
+            "ON DUPLICATE KEY UPDATE created_at = GREATEST(created_at, VALUES(created_at))")
+    int upsertEntry(@Param("ownerId") Long ownerId,
+                    @Param("tweetId") Long tweetId,
+                    @Param("createdAt") LocalDateTime createdAt);
+
+    /**
+     * Removes a retweeted tweet from the home timelines of the user who undid the retweet and their followers,
+     * once the retweet is deleted. Timelines that still receive the tweet from another source keep it: the
+     * author's own, those of followers of the author, and those of users who retweeted it or follow another
+     * user who did.
+     *
+     * @param tweetId The ID of the retweeted tweet.
+     * @param userId  The ID of the user who undid the retweet.
+     * @return The number of entries removed.
+     */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "home_timeline"))
+    @Query(nativeQuery = true, value = "DELETE FROM home_timeline WHERE tweet_id = :tweetId " +
+            "AND (owner_id = :userId " +
+            "OR owner_id IN (SELECT f.follower_id FROM follows f WHERE f.followee_id = :userId)) " +
+            "AND owner_id NOT IN (SELECT t.user_id FROM tweets t WHERE t.id = :tweetId) " +
+            "AND owner_id NOT IN (SELECT f.follower_id FROM follows f JOIN tweets t ON t.user_id = f.followee_id " +
+            "WHERE t.id = :tweetId) " +
+            "AND owner_id NOT IN (SELECT r.user_id FROM retweets r WHERE r.tweet_id = :tweetId) " +
+            "AND owner_id NOT IN (SELECT f.follower_id FROM follows f JOIN retweets r ON r.user_id = f.followee_id " +
+            "WHERE r.tweet_id = :tweetId)")
+    int deleteRetweetEntries(@Param("tweetId") Long tweetId, @Param("userId") Long userId);
+
+    /**
+     * Removes a tweet from every home timeline.
+     *
+     * @param tweetId The ID of the tweet.
+     * @return The number of entries removed.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TimelineEntry e WHERE e.id.tweetId = :tweetId")
+    int deleteAllByTweetId(@Param("tweetId") Long tweetId);
+
+    /**
+     * Retrieves the first page of a home timeline, newest first.
+     *
+     * @param ownerId  The ID of the user owning the timeline.
+     * @param pageable The page size limit.
+     * @return List of timeline entries.
+     */
+    @Query("SELECT e FROM TimelineEntry e WHERE e.id.ownerId = :ownerId " +
+            "ORDER BY e.createdAt DESC, e.id.tweetId DESC")
+    List<TimelineEntry> findPage(@Param("ownerId") Long ownerId, Pageable pageable);
+
+    /**
+     * Retrieves the page of a home timeline that follows the given keyset position, newest first.
+     *
+     * @param ownerId   The ID of the user owning the timeline.
+     * @param createdAt The timeline time of the last entry of the previous page.
+     * @param tweetId   The tweet ID of the last entry of the previous page.
+     * @param pageable  The page size limit.
+     * @return List of timeline entries.
+     */
+    @Query("SELECT e FROM TimelineEntry e WHERE e.id.ownerId = :ownerId " +
+            "AND (e.createdAt < :createdAt OR (e.createdAt = :createdAt AND e.id.tweetId < :tweetId)) " +
+            "ORDER BY e.createdAt DESC, e.id.tweetId DESC")
+    List<TimelineEntry> findPageBefore(@Param("ownerId") Long ownerId,
+                                       @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("tweetId") Long tweetId,
+                                       Pageable pageable);
+}
@@ -1,11 +1,24 @@
 package com.habibian.tweeterclone.repository;
 
 import com.habibian.tweeterclone.model.Tweet;
-import com.habibian.tweeterclone.model.User;
+import com.habibian.tweeterclone.repository.projection.TweetContentView;
+import com.habibian.tweeterclone.repository.projection.TweetCountersView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for managing Tweet entities in the database.
@@ -14,39 +27,227 @@ import java.util.List;
 public interface TweetRepository extends JpaRepository<Tweet, Long> {
 
     /**
-     * Retrieves all tweets that are marked as original tweets (not retweets),
-     * ordered by their creation timestamp in descending order.
+     * Retrieves the first page of original tweets (not replies), newest first.
+     * Tweet IDs are time-ordered, so the tweets are ordered by ID alone.
      *
+     * @param pageable The page size limit.
+     * @return List of tweets ordered by ID.
+     */
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT t FROM Tweet t WHERE t.isTweet = true ORDER BY t.id DESC")
+    List<Tweet> findTimeline(Pageable pageable);
+
+    /**
+     * Retrieves the page of original tweets (not replies) that precede the given tweet ID, newest first.
+     *
+     * @param id       The ID of the last tweet of the previous page.
+     * @param pageable The page size limit.
+     * @return List of tweets ordered by ID.
+     */
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT t FROM Tweet t WHERE t.isTweet = true AND t.id < :id ORDER BY t.id DESC")
+    List<Tweet> findTimelineBefore(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Retrieves the first page of the direct replies to a tweet, oldest first.
+     *
+     * @param tweetId  The ID of the replied tweet.
+     * @param pageable The page size limit.
+     * @return List of replies ordered by ID.
+     */
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT t FROM Tweet t WHERE t.replyFor.id = :tweetId ORDER BY t.id")
+    List<Tweet> findReplies(@Param("tweetId") Long tweetId, Pageable pageable);
+
+    /**
+     * Retrieves the page of the direct replies to a tweet that follow the given reply ID, oldest first.
+     *
+     * @param tweetId  The ID of the replied tweet.
+     * @param id       The ID of the last reply of the previous page.
+     * @param pageable The page size limit.
+     * @return List of replies ordered by ID.
+     */
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT t FROM Tweet t WHERE t.replyFor.id = :tweetId AND t.id > :id ORDER BY t.id")
+    List<Tweet> findRepliesAfter(@Param("tweetId") Long tweetId,
+                                 @Param("id") Long id,
+                                 Pageable pageable);
+
+    /**
+     * Retrieves the tweets of a conversation whose path starts with the given prefix, down to a depth,
+     * in path order. A path holds only the ancestors of a tweet, so this order groups replies by parent:
+     * every reply comes after its parent, but not right after it.
+     *
+     * @param conversationId The ID of the root tweet of the conversation.
+     * @param pathPattern    The path prefix, followed by the LIKE wildcard.
+     * @param maxDepth       The deepest depth to load.
+     * @param pageable       The size limit.
+     * @return List of tweets ordered by path, then by ID.
+     */
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT t FROM Tweet t WHERE t.conversationId = :conversationId AND t.path LIKE :pathPattern " +
+            "AND t.depth <= :maxDepth ORDER BY t.path, t.id")
+    List<Tweet> findThreadDescendants(@Param("conversationId") Long conversationId,
+                                      @Param("pathPattern") String pathPattern,
+                                      @Param("maxDepth") int maxDepth,
+                                      Pageable pageable);
+
+    /**
+     * Retrieves the first page of original tweets posted by any of the given users that have no entry in
+     * a user's home timeline, ordered by their creation timestamp in descending order. Unlike plain tweet
+     * lists, these are keyed by time, to be merged with the home timeline entries; a tweet with an entry
+     * is left to the entry, which holds its latest activity.
+     *
+     * @param ownerId  The ID of the owner of the home timeline.
+     * @param userIds  The IDs of the authors.
+     * @param pageable The page size limit.
      * @return List of tweets ordered by creation timestamp.
      */
-    List<Tweet> findAllByIsTweetTrueOrderByCreatedAtDesc();
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT t FROM Tweet t WHERE t.user.id IN :userIds AND t.isTweet = true " +
+            "AND NOT EXISTS (SELECT e FROM TimelineEntry e WHERE e.id.ownerId = :ownerId AND e.id.tweetId = t.id) " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Tweet> findTimelineByUserIdsOutsideHome(@Param("ownerId") Long ownerId,
+                                                 @Param("userIds") Collection<Long> userIds,
+                                                 Pageable pageable);
 
     /**
-     * Retrieves all tweets based on the given user's retweets or original tweets,
-     * ordered by their creation timestamp in descending order.
+     * Retrieves the page of original tweets posted by any of the given users that have no entry in a
+     * user's home timeline and follow the given keyset position, ordered by their creation timestamp in
+     * descending order.
      *
-     * @param user   The user whose tweets or retweets are to be retrieved.
-     * @param userId The ID of the user for whom to retrieve tweets or retweets.
+     * @param ownerId   The ID of the owner of the home timeline.
+     * @param userIds   The IDs of the authors.
+     * @param createdAt The creation timestamp of the last tweet of the previous page.
+     * @param id        The ID of the last tweet of the previous page.
+     * @param pageable  The page size limit.
      * @return List of tweets ordered by creation timestamp.
      */
-    List<Tweet> findAllByRetweetUserContainsOrUser_IdAndIsTweetTrueOrderByCreatedAtDesc(User user, Long userId);
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT t FROM Tweet t WHERE t.user.id IN :userIds AND t.isTweet = true " +
+            "AND NOT EXISTS (SELECT e FROM TimelineEntry e WHERE e.id.ownerId = :ownerId AND e.id.tweetId = t.id) " +
+            "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Tweet> findTimelineByUserIdsOutsideHomeBefore(@Param("ownerId") Long ownerId,
+                                                       @Param("userIds") Collection<Long> userIds,
+                                                       @Param("createdAt") LocalDateTime createdAt,
+                                                       @Param("id") Long id,
+                                                       Pageable pageable);
 
     /**
-     * Retrieves all tweets that have been liked by the given user,
-     * ordered by their creation timestamp in descending order.
+     * Retrieves the first page of original tweets of a user that the user has not retweeted, ordered by their
+     * creation timestamp in descending order, to be merged with the user's retweets; a tweet the user
+     * retweeted is left to the retweet, which is its latest activity.
      *
-     * @param user The user whose liked tweets are to be retrieved.
+     * @param userId   The ID of the author.
+     * @param pageable The page size limit.
      * @return List of tweets ordered by creation timestamp.
      */
-    List<Tweet> findAllByLikesContainingOrderByCreatedAtDesc(User user);
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT t FROM Tweet t WHERE t.user.id = :userId AND t.isTweet = true " +
+            "AND NOT EXISTS (SELECT r FROM Retweet r WHERE r.user.id = :userId AND r.tweet.id = t.id) " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Tweet> findNotRetweetedByUser(@Param("userId") Long userId, Pageable pageable);
 
     /**
-     * Retrieves all tweets that have been liked by a user with the specified ID,
-     * using a custom JPQL query.
+     * Retrieves the page of original tweets of a user that the user has not retweeted and that follow the
+     * given keyset position, ordered by their creation timestamp in descending order.
      *
-     * @param userId The ID of the user whose liked tweets are to be retrieved.
+     * @param userId    The ID of the author.
+     * @param createdAt The creation timestamp of the last tweet of the previous page.
+     * @param id        The ID of the last tweet of the previous page.
+     * @param pageable  The page size limit.
      * @return List of tweets ordered by creation timestamp.
      */
-    @Query("select t from Tweet t join t.likes l where l.user.id = :userId")
-    List<Tweet> findAllByLikesUser_Id(Long userId);
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT t FROM Tweet t WHERE t.user.id = :userId AND t.isTweet = true " +
+            "AND NOT EXISTS (SELECT r FROM Retweet r WHERE r.user.id = :userId AND r.tweet.id = t.id) " +
+            "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Tweet> findNotRetweetedByUserBefore(@Param("userId") Long userId,
+                                             @Param("createdAt") LocalDateTime createdAt,
+                                             @Param("id") Long id,
+                                             Pageable pageable);
+
+    /**
+     * Streams the searchable content of all tweets. The rows are streamed from the database
+     * rather than loaded at once, and must be consumed within a transaction.
+     *
+     * @return Stream of tweet contents.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT t.id AS id, t.content AS content, t.createdAt AS createdAt FROM Tweet t")
+    Stream<TweetContentView> streamAllContents();
+
+    /**
+     * Retrieves the tweets with the given IDs together with their authors, in no particular order.
+     *
+     * @param ids The IDs of the tweets.
+     * @return List of tweets.
+     */
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT t FROM Tweet t WHERE t.id IN :ids")
+    List<Tweet> findAllWithUserByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Retrieves the counters of the tweets with the given IDs.
+     *
+     * @param ids The IDs of the tweets.
+     * @return List of tweet counters.
+     */
+    @Query("SELECT t.id AS id, t.likeCount AS likeCount, t.replyCount AS replyCount, " +
+            "t.retweetCount AS retweetCount FROM Tweet t WHERE t.id IN :ids")
+    List<TweetCountersView> findCountersByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Retrieves tweet IDs in ascending order, starting after the given ID.
+     *
+     * @param afterId  The ID to start after.
+     * @param pageable The page size limit.
+     * @return List of tweet IDs.
+     */
+    @Query("SELECT t.id FROM Tweet t WHERE t.id > :afterId ORDER BY t.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Recomputes the like counters of the tweets in an ID range from the likes table.
+     *
+     * @param fromId The first ID of the range.
+     * @param toId   The last ID of the range.
+     * @return The number of updated tweets.
+     */
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value = "UPDATE tweets t LEFT JOIN (SELECT l.tweet_id, COUNT(*) AS n FROM likes l " +
+            "WHERE l.tweet_id BETWEEN :fromId AND :toId GROUP BY l.tweet_id) c ON c.tweet_id = t.id " +
+            "SET t.like_count = COALESCE(c.n, 0) WHERE t.id BETWEEN :fromId AND :toId")
+    int reconcileLikeCounts(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    /**
+     * Recomputes the reply counters of the tweets in an ID range from their replies.
+     *
+     * @param fromId The first ID of the range.
+     * @param toId   The last ID of the range.
+     * @return The number of updated tweets.
+     */
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value = "UPDATE tweets t LEFT JOIN (SELECT r.reply_for_id, COUNT(*) AS n FROM tweets r " +
+            "WHERE r.reply_for_id BETWEEN :fromId AND :toId GROUP BY r.reply_for_id) c ON c.reply_for_id = t.id " +
+            "SET t.reply_count = COALESCE(c.n, 0) WHERE t.id BETWEEN :fromId AND :toId")
+    int reconcileReplyCounts(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    /**
+     * Recomputes the retweet counters of the tweets in an ID range from the retweets table.
+     *
+     * @param fromId The first ID of the range.
+     * @param toId   The last ID of the range.
+     * @return The number of updated tweets.
+     */
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value = "UPDATE tweets t LEFT JOIN (SELECT r.tweet_id, COUNT(*) AS n FROM retweets r " +
+            "WHERE r.tweet_id BETWEEN :fromId AND :toId GROUP BY r.tweet_id) c ON c.tweet_id = t.id " +
+            "SET t.retweet_count = COALESCE(c.n, 0) WHERE t.id BETWEEN :fromId AND :toId")
+    int reconcileRetweetCounts(@Param("fromId") Long fromId, @Param("toId") Long toId);
 }
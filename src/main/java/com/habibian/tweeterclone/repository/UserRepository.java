@@ -1,10 +1,15 @@
 package com.habibian.tweeterclone.repository;
 
 import com.habibian.tweeterclone.model.User;
+import com.habibian.tweeterclone.repository.projection.UserSummaryView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -21,11 +26,69 @@ public interface UserRepository extends JpaRepository<User, Long> {
     User findByEmail(String email);
 
     /**
-     * Performs a user search based on the provided query string.
+     * Retrieves users in ascending ID order, starting after the given ID.
      *
-     * @param query The query string to search for in user full names and emails.
-     * @return A list of users matching the search criteria.
+     * @param afterId  The ID to start after.
+     * @param pageable The page size limit.
+     * @return List of users.
      */
-    @Query("SELECT DISTINCT u FROM User u WHERE u.fullname LIKE %:query% OR u.email LIKE %:query%")
-    List<User> searchUser(@Param("query") String query);
+    @Query("SELECT u FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<User> findAllAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Retrieves the display fields of the users with the given IDs.
+     *
+     * @param ids The IDs of the users.
+     * @return List of user summaries.
+     */
+    @Query("SELECT u.id AS id, u.fullname AS fullname, u.email AS email, u.image AS image " +
+            "FROM User u WHERE u.id IN :ids")
+    List<UserSummaryView> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Retrieves the follower counter of a user.
+     *
+     * @param userId The ID of the user.
+     * @return The number of followers.
+     */
+    @Query("SELECT u.followersCount FROM User u WHERE u.id = :userId")
+    int findFollowersCount(@Param("userId") Long userId);
+
+    /**
+     * Retrieves user IDs in ascending order, starting after the given ID.
+     *
+     * @param afterId  The ID to start after.
+     * @param pageable The page size limit.
+     * @return List of user IDs.
+     */
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Recomputes the follower counters of the users in an ID range from the follows table.
+     *
+     * @param fromId The first ID of the range.
+     * @param toId   The last ID of the range.
+     * @return The number of updated users.
+     */
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value = "UPDATE users u LEFT JOIN (SELECT f.followee_id, COUNT(*) AS n FROM follows f " +
+            "WHERE f.followee_id BETWEEN :fromId AND :toId GROUP BY f.followee_id) c ON c.followee_id = u.id " +
+            "SET u.followers_count = COALESCE(c.n, 0) WHERE u.id BETWEEN :fromId AND :toId")
+    int reconcileFollowersCounts(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    /**
+     * Recomputes the following counters of the users in an ID range from the follows table.
+     *
+     * @param fromId The first ID of the range.
+     * @param toId   The last ID of the range.
+     * @return The number of updated users.
+     */
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value = "UPDATE users u LEFT JOIN (SELECT f.follower_id, COUNT(*) AS n FROM follows f " +
+            "WHERE f.follower_id BETWEEN :fromId AND :toId GROUP BY f.follower_id) c ON c.follower_id = u.id " +
+            "SET u.followings_count = COALESCE(c.n, 0) WHERE u.id BETWEEN :fromId AND :toId")
+    int reconcileFollowingsCounts(@Param("fromId") Long fromId, @Param("toId") Long toId);
 }
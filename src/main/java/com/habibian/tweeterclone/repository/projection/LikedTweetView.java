@@ -0,0 +1,19 @@
+package com.habibian.tweeterclone.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of a tweet liked by a user, read from the likes index alone.
+ */
+public interface LikedTweetView {
+
+    /**
+     * @return The ID of the liked tweet.
+     */
+    Long getTweetId();
+
+    /**
+     * @return The time of the like.
+     */
+    LocalDateTime getCreatedAt();
+}
@@ -0,0 +1,14 @@
+package com.habibian.tweeterclone.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of a user who liked a tweet, carrying only the fields needed to list the user.
+ */
+public interface LikerView extends UserSummaryView {
+
+    /**
+     * @return The time of the like.
+     */
+    LocalDateTime getLikedAt();
+}
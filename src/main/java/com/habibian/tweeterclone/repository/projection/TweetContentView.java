@@ -0,0 +1,24 @@
+package com.habibian.tweeterclone.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of the searchable content of a tweet.
+ */
+public interface TweetContentView {
+
+    /**
+     * @return The ID of the tweet.
+     */
+    Long getId();
+
+    /**
+     * @return The content of the tweet.
+     */
+    String getContent();
+
+    /**
+     * @return The creation time of the tweet.
+     */
+    LocalDateTime getCreatedAt();
+}
@@ -0,0 +1,27 @@
+package com.habibian.tweeterclone.repository.projection;
+
+/**
+ * Projection of the counters of a tweet.
+ */
+public interface TweetCountersView {
+
+    /**
+     * @return The ID of the tweet.
+     */
+    Long getId();
+
+    /**
+     * @return The number of likes.
+     */
+    int getLikeCount();
+
+    /**
+     * @return The number of replies.
+     */
+    int getReplyCount();
+
+    /**
+     * @return The number of retweets.
+     */
+    int getRetweetCount();
+}
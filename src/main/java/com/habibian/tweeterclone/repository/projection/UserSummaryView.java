@@ -0,0 +1,27 @@
+package com.habibian.tweeterclone.repository.projection;
+
+/**
+ * Projection of the fields needed to display a user next to content.
+ */
+public interface UserSummaryView {
+
+    /**
+     * @return The ID of the user.
+     */
+    Long getId();
+
+    /**
+     * @return The full name of the user.
+     */
+    String getFullname();
+
+    /**
+     * @return The email of the user.
+     */
+    String getEmail();
+
+    /**
+     * @return The profile image of the user.
+     */
+    String getImage();
+}
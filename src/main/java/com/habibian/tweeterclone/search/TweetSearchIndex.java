@@ -0,0 +1,250 @@
+package com.habibian.tweeterclone.search;
+
+import com.habibian.tweeterclone.model.Tweet;
+import com.habibian.tweeterclone.repository.TweetRepository;
+import com.habibian.tweeterclone.repository.projection.TweetContentView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index of tweet contents.
+ * <p>
+ * Each term maps to the IDs of the tweets containing it, sorted newest (highest ID) first. Hashtags and
+ * mentions are indexed both as themselves ({@code #java}, {@code @ali}) and as plain words, so a query for
+ * {@code #java} only finds the hashtag while a query for {@code java} finds both.
+ * <p>
+ * A search walks the postings of its rarest term from the cursor downwards and keeps the tweets containing
+ * every other term, until it has a page of matches. The page is then ranked by relevance weighted by
+ * recency. The index is rebuilt from the database on startup and kept up to date as tweets are created
+ * and deleted.
+ */
+@Component
+@RequiredArgsConstructor
+public class TweetSearchIndex {
+
+    /**
+     * The age, in hours, after which the ranking weight of a match is halved.
+     */
+    public static final double RECENCY_HALF_LIFE_HOURS = 24;
+
+    private static final Pattern TOKEN = Pattern.compile("[#@]?[\\p{L}\\p{N}_]+");
+
+    private final TweetRepository tweetRepository;
+
+    // Tweet IDs by term, newest first
+    private final Map<String, Postings> postings = new ConcurrentHashMap<>();
+
+    // Indexed tweets by ID
+    private final Map<Long, IndexedTweet> tweets = new ConcurrentHashMap<>();
+
+    /**
+     * Loads all tweets into the index, streaming their contents from the database instead of
+     * loading the table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        try (Stream<TweetContentView> contents = tweetRepository.streamAllContents()) {
+            contents.forEach(content -> index(content.getId(), content.getContent(), content.getCreatedAt()));
+        }
+    }
+
+    /**
+     * Adds a tweet to the index.
+     *
+     * @param tweet The tweet to index.
+     */
+    public void index(Tweet tweet) {
+        index(tweet.getId(), tweet.getContent(), tweet.getCreatedAt());
+    }
+
+    /**
+     * Removes a tweet from the index.
+     *
+     * @param tweetId The ID of the tweet to remove.
+     */
+    public void remove(Long tweetId) {
+        IndexedTweet previous = tweets.remove(tweetId);
+
+        if (previous != null) {
+            previous.terms().forEach(term -> postings.computeIfPresent(term, (t, termPostings) -> {
+                termPostings.remove(tweetId);
+                return termPostings.isEmpty() ? null : termPostings;
+            }));
+        }
+    }
+
+    /**
+     * Searches tweets containing every term of a query.
+     *
+     * @param query    The search query.
+     * @param beforeId The lowest tweet ID covered by the previous page, or null for the first page.
+     * @param size     The page size.
+     * @return The matching tweets of the requested page.
+     */
+    public TweetSearchResult search(String query, Long beforeId, int size) {
+        List<String> queryTerms = tokenize(query);
+        List<Postings> queryPostings = new ArrayList<>();
+
+        for (String queryTerm : queryTerms) {
+            Postings termPostings = postings.get(queryTerm);
+
+            if (termPostings == null) {
+                return new TweetSearchResult(List.of(), null);
+            }
+            queryPostings.add(termPostings);
+        }
+
+        if (queryPostings.isEmpty()) {
+            return new TweetSearchResult(List.of(), null);
+        }
+
+        Postings rarest = Collections.min(queryPostings, Comparator.comparingInt(Postings::size));
+        NavigableSet<Long> candidates = beforeId == null ? rarest.ids() : rarest.ids().tailSet(beforeId, false);
+
+        List<IndexedTweet> matches = new ArrayList<>();
+        for (Long tweetId : candidates) {
+            IndexedTweet tweet = tweets.get(tweetId);
+
+            if (tweet != null && tweet.terms().containsAll(queryTerms)) {
+                matches.add(tweet);
+
+                if (matches.size() == size) {
+                    break;
+                }
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        Long lastScannedId = matches.size() < size ? null : matches.get(matches.size() - 1).id();
+
+        List<Long> tweetIds = matches.stream()
+                .sorted(Comparator.comparingDouble((IndexedTweet tweet) -> tweet.score(queryTerms, now)).reversed())
+                .map(IndexedTweet::id)
+                .toList();
+
+        return new TweetSearchResult(tweetIds, lastScannedId);
+    }
+
+    private void index(Long tweetId, String content, LocalDateTime createdAt) {
+        if (content == null) {
+            return;
+        }
+
+        long createdAtMillis = createdAt == null ? 0 : createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        IndexedTweet tweet = new IndexedTweet(tweetId, new HashSet<>(tokenize(content)), createdAtMillis);
+
+        tweets.put(tweetId, tweet);
+        tweet.terms().forEach(term -> postings.compute(term, (t, termPostings) -> {
+            Postings updated = termPostings == null ? new Postings() : termPostings;
+            updated.add(tweetId);
+            return updated;
+        }));
+    }
+
+    /**
+     * Splits a text into lowercase words, hashtags and mentions. Hashtags and mentions are also returned
+     * as plain words.
+     *
+     * @param text The text to split.
+     * @return The distinct terms of the text.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+
+        Set<String> terms = new LinkedHashSet<>();
+        Matcher matcher = TOKEN.matcher(text.toLowerCase(Locale.ROOT));
+
+        while (matcher.find()) {
+            String term = matcher.group();
+            terms.add(term);
+
+            if (term.charAt(0) == '#' || term.charAt(0) == '@') {
+                terms.add(term.substring(1));
+            }
+        }
+
+        return new ArrayList<>(terms);
+    }
+
+    /**
+     * The IDs of the tweets containing a term, newest first, with their count.
+     */
+    private static class Postings {
+
+        private final ConcurrentSkipListSet<Long> ids = new ConcurrentSkipListSet<>(Comparator.reverseOrder());
+        private final AtomicInteger size = new AtomicInteger();
+
+        NavigableSet<Long> ids() {
+            return ids;
+        }
+
+        int size() {
+            return size.get();
+        }
+
+        boolean isEmpty() {
+            return size.get() == 0;
+        }
+
+        void add(Long tweetId) {
+            if (ids.add(tweetId)) {
+                size.incrementAndGet();
+            }
+        }
+
+        void remove(Long tweetId) {
+            if (ids.remove(tweetId)) {
+                size.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * The indexed terms of a tweet.
+     *
+     * @param id        The ID of the tweet.
+     * @param terms     The terms of the tweet's content.
+     * @param createdAt The creation time of the tweet, in epoch milliseconds.
+     */
+    private record IndexedTweet(Long id, Set<String> terms, long createdAt) {
+
+        /**
+         * Scores the tweet for a query it matches: hashtag and mention matches weigh double, and the
+         * weight halves every {@link #RECENCY_HALF_LIFE_HOURS} of age.
+         *
+         * @param queryTerms The terms of the query.
+         * @param now        The current time, in epoch milliseconds.
+         * @return The score of the tweet.
+         */
+        double score(List<String> queryTerms, long now) {
+            double relevance = 0;
+
+            for (String queryTerm : queryTerms) {
+                boolean tagged = queryTerm.charAt(0) == '#' || queryTerm.charAt(0) == '@'
+                        || terms.contains("#" + queryTerm) || terms.contains("@" + queryTerm);
+                relevance += tagged ? 2 : 1;
+            }
+
+            double ageHours = (double) Math.max(now - createdAt, 0) / TimeUnit.HOURS.toMillis(1);
+
+            return relevance * Math.pow(0.5, ageHours / RECENCY_HALF_LIFE_HOURS);
+        }
+    }
+}
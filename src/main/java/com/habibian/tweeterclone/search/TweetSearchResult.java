@@ -0,0 +1,13 @@
+package com.habibian.tweeterclone.search;
+
+import java.util.List;
+
+/**
+ * A page of tweet search results.
+ *
+ * @param tweetIds      The IDs of the matching tweets of the page, best match first.
+ * @param lastScannedId The lowest tweet ID covered by the page, where the next page starts,
+ *                      or null if there are no more matches.
+ */
+public record TweetSearchResult(List<Long> tweetIds, Long lastScannedId) {
+}
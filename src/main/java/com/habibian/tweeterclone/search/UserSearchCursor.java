@@ -0,0 +1,55 @@
+package com.habibian.tweeterclone.search;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Comparator;
+
+/**
+ * Position in the ranked results of a user search: the full sort key of a matching user.
+ * <p>
+ * Pages resume after the sort key of the last user of the previous page rather than after that user
+ * itself, so a page can be found even if that user was renamed, re-indexed or removed in the meantime.
+ *
+ * @param score          The match score, higher first.
+ * @param followersCount The follower count, higher first.
+ * @param id             The ID of the user, lower first.
+ */
+public record UserSearchCursor(int score, int followersCount, Long id) {
+
+    /**
+     * The ranking of search results, best match first.
+     */
+    public static final Comparator<UserSearchCursor> RANKING = Comparator.comparingInt(UserSearchCursor::score).reversed()
+            .thenComparing(Comparator.comparingInt(UserSearchCursor::followersCount).reversed())
+            .thenComparing(UserSearchCursor::id);
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Encodes this cursor into an opaque URL-safe string.
+     *
+     * @return The encoded cursor.
+     */
+    public String encode() {
+        String raw = score + SEPARATOR + followersCount + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor previously produced by {@link #encode()}.
+     *
+     * @param cursor The encoded cursor.
+     * @return The decoded cursor.
+     * @throws IllegalArgumentException If the cursor is malformed.
+     */
+    public static UserSearchCursor decode(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split("\\" + SEPARATOR);
+
+            return new UserSearchCursor(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Long.valueOf(parts[2]));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.habibian.tweeterclone.search;
+
+import com.habibian.tweeterclone.model.User;
+import com.habibian.tweeterclone.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory prefix index of users, searched by the terms of their full names and emails.
+ * <p>
+ * Terms are kept in a sorted map from term to user IDs, so all terms starting with a typed prefix are
+ * one contiguous range of the map. A search collects at most {@link #MAX_CANDIDATES} users from the
+ * range of its first query term, keeps those matching every other query term, and ranks them by how
+ * well they match and then by follower count. The index is loaded from the database on startup and
+ * kept up to date on signup and profile updates.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserSearchIndex {
+
+    /**
+     * The maximum number of users ranked per search, which bounds the cost of short prefixes.
+     */
+    public static final int MAX_CANDIDATES = 10_000;
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final UserRepository userRepository;
+
+    // User IDs by term, sorted by term
+    private final ConcurrentSkipListMap<String, Set<Long>> terms = new ConcurrentSkipListMap<>();
+
+    // Indexed users by ID
+    private final Map<Long, IndexedUser> users = new ConcurrentHashMap<>();
+
+    /**
+     * Loads all users into the index, in batches of ascending IDs.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<User> batch = userRepository.findAllAfter(0L, PageRequest.of(0, BATCH_SIZE));
+
+        while (!batch.isEmpty()) {
+            batch.forEach(this::index);
+            batch = userRepository.findAllAfter(batch.get(batch.size() - 1).getId(), PageRequest.of(0, BATCH_SIZE));
+        }
+    }
+
+    /**
+     * Adds a user to the index, replacing its previous terms.
+     *
+     * @param user The user to index.
+     */
+    public void index(User user) {
+        IndexedUser indexedUser = new IndexedUser(
+                user.getId(),
+                tokenize(user.getFullname()),
+                tokenize(user.getEmail()),
+                user.getFollowersCount()
+        );
+
+        IndexedUser previous = users.put(user.getId(), indexedUser);
+        if (previous != null) {
+            removeTerms(previous);
+        }
+
+        indexedUser.terms().forEach(term ->
+                terms.computeIfAbsent(term, t -> ConcurrentHashMap.newKeySet()).add(user.getId()));
+    }
+
+    /**
+     * Removes a user from the index.
+     *
+     * @param userId The ID of the user to remove.
+     */
+    public void remove(Long userId) {
+        IndexedUser previous = users.remove(userId);
+
+        if (previous != null) {
+            removeTerms(previous);
+        }
+    }
+
+    /**
+     * Searches users whose terms start with every term of a query, best match first.
+     *
+     * @param query The search query.
+     * @param after The position of the last user of the previous page, or null for the first page.
+     * @param size  The page size.
+     * @return The IDs of the matching users of the requested page, ranked after the given position.
+     */
+    public UserSearchResult search(String query, UserSearchCursor after, int size) {
+        List<String> queryTerms = tokenize(query);
+
+        if (queryTerms.isEmpty()) {
+            return new UserSearchResult(List.of(), null);
+        }
+
+        List<UserSearchCursor> matches = new ArrayList<>();
+        for (Long userId : candidates(queryTerms.get(0))) {
+            IndexedUser user = users.get(userId);
+            int score = user == null ? 0 : user.score(queryTerms);
+
+            if (score > 0 && (after == null || UserSearchCursor.RANKING.compare(
+                    new UserSearchCursor(score, user.followersCount(), user.id()), after) > 0)) {
+                matches.add(new UserSearchCursor(score, user.followersCount(), user.id()));
+            }
+        }
+
+        matches.sort(UserSearchCursor.RANKING);
+
+        List<UserSearchCursor> page = matches.subList(0, Math.min(size, matches.size()));
+
+        return new UserSearchResult(
+                page.stream().map(UserSearchCursor::id).toList(),
+                matches.size() > size ? page.get(page.size() - 1) : null
+        );
+    }
+
+    /**
+     * Collects the IDs of users having a term that starts with the given prefix, exact matches first.
+     *
+     * @param prefix The prefix.
+     * @return At most {@link #MAX_CANDIDATES} user IDs.
+     */
+    private Set<Long> candidates(String prefix) {
+        Set<Long> candidates = new LinkedHashSet<>();
+
+        for (Set<Long> userIds : terms.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values()) {
+            for (Long userId : userIds) {
+                candidates.add(userId);
+
+                if (candidates.size() >= MAX_CANDIDATES) {
+                    return candidates;
+                }
+            }
+        }
+
+        return candidates;
+    }
+
+    /**
+     * Removes a user from the postings of its terms, dropping terms left without users.
+     *
+     * @param user The indexed user.
+     */
+    private void removeTerms(IndexedUser user) {
+        user.terms().forEach(term -> terms.computeIfPresent(term, (t, userIds) -> {
+            userIds.remove(user.id());
+            return userIds.isEmpty() ? null : userIds;
+        }));
+    }
+
+    /**
+     * Splits a text into lowercase terms on every character that is not a letter or a digit.
+     *
+     * @param text The text to split, possibly null.
+     * @return The distinct terms of the text.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    /**
+     * The indexed terms and ranking data of a user.
+     *
+     * @param id             The ID of the user.
+     * @param nameTerms      The terms of the user's full name.
+     * @param emailTerms     The terms of the user's email.
+     * @param followersCount The follower count of the user when it was indexed.
+     */
+    private record IndexedUser(Long id, List<String> nameTerms, List<String> emailTerms, int followersCount) {
+
+        /**
+         * Returns all terms of the user.
+         *
+         * @return The name and email terms.
+         */
+        List<String> terms() {
+            List<String> terms = new ArrayList<>(nameTerms);
+            terms.addAll(emailTerms);
+            return terms;
+        }
+
+        /**
+         * Scores how well the user matches a query. Every query term must match a term of the user.
+         *
+         * @param queryTerms The terms of the query.
+         * @return The score, higher for exact and name matches, or 0 if a query term does not match.
+         */
+        int score(List<String> queryTerms) {
+            int score = 0;
+
+            for (String queryTerm : queryTerms) {
+                int termScore = Math.max(termScore(nameTerms, queryTerm, 4, 3), termScore(emailTerms, queryTerm, 2, 1));
+
+                if (termScore == 0) {
+                    return 0;
+                }
+                score += termScore;
+            }
+
+            return score;
+        }
+
+        private static int termScore(List<String> terms, String queryTerm, int exactScore, int prefixScore) {
+            int score = 0;
+
+            for (String term : terms) {
+                if (term.equals(queryTerm)) {
+                    return exactScore;
+                }
+                if (term.startsWith(queryTerm)) {
+                    score = prefixScore;
+                }
+            }
+
+            return score;
+        }
+    }
+}
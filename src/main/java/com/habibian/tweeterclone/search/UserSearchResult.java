@@ -0,0 +1,13 @@
+package com.habibian.tweeterclone.search;
+
+import java.util.List;
+
+/**
+ * A page of user search results.
+ *
+ * @param userIds The IDs of the matching users of the page, best match first.
+ * @param last    The position of the last user of the page, where the next page starts,
+ *                or null if there are no more matches.
+ */
+public record UserSearchResult(List<Long> userIds, UserSearchCursor last) {
+}
@@ -0,0 +1,66 @@
+package com.habibian.tweeterclone.service;
+
+import com.habibian.tweeterclone.repository.TweetRepository;
+import com.habibian.tweeterclone.repository.UserRepository;
+import com.habibian.tweeterclone.util.PaginationUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Scheduled job repairing drift in the denormalized counters.
+ * <p>
+ * Counters are maintained by atomic increments next to the writes they count, so they only drift if
+ * one of the two statements fails. The job walks the tweets and users tables in ID ranges and recomputes
+ * each counter from its source table, keeping every statement bounded to one range.
+ */
+@Component
+@RequiredArgsConstructor
+public class CounterReconciliationJob {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final TweetRepository tweetRepository;
+    private final UserRepository userRepository;
+
+    /**
+     * Recomputes the like, reply and retweet counters of every tweet.
+     */
+    @Scheduled(cron = "${tweeter.counters.reconcile-cron}")
+    public void reconcileTweetCounters() {
+        long afterId = 0;
+        List<Long> ids;
+
+        while (!(ids = tweetRepository.findIdsAfter(afterId, PaginationUtil.limit(BATCH_SIZE))).isEmpty()) {
+            Long fromId = ids.get(0);
+            Long toId = ids.get(ids.size() - 1);
+
+            tweetRepository.reconcileLikeCounts(fromId, toId);
+            tweetRepository.reconcileReplyCounts(fromId, toId);
+            tweetRepository.reconcileRetweetCounts(fromId, toId);
+
+            afterId = toId;
+        }
+    }
+
+    /**
+     * Recomputes the follower and following counters of every user.
+     */
+    @Scheduled(cron = "${tweeter.counters.reconcile-cron}")
+    public void reconcileUserCounters() {
+        long afterId = 0;
+        List<Long> ids;
+
+        while (!(ids = userRepository.findIdsAfter(afterId, PaginationUtil.limit(BATCH_SIZE))).isEmpty()) {
+            Long fromId = ids.get(0);
+            Long toId = ids.get(ids.size() - 1);
+
+            userRepository.reconcileFollowersCounts(fromId, toId);
+            userRepository.reconcileFollowingsCounts(fromId, toId);
+
+            afterId = toId;
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package com.habibian.tweeterclone.service;
+
+import com.habibian.tweeterclone.cache.TimelineCache;
+import com.habibian.tweeterclone.exception.WriteBackpressureException;
+import com.habibian.tweeterclone.repository.CounterRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Optional write-behind queue for likes and retweets, enabled by {@code tweeter.write-behind.enabled}.
+ * <p>
+ * A like or retweet tap is accepted into a bounded in-memory map keyed by (engagement, user, tweet), so
+ * repeated taps on the same tweet collapse into the last requested state, and a tap that undoes a pending
+ * one cancels it. The map is flushed every {@code tweeter.write-behind.flush-interval-ms}, in transactions
+ * of up to {@code tweeter.write-behind.batch-size} writes: the rows are inserted and deleted with JDBC
+ * batches, and each tweet's counter is updated once with the sum of its changes. Only the rows the batches
+ * report as actually inserted or deleted are counted, so the counters stay exact when several instances
+ * flush writes on the same tweets at the same time. Until a write is flushed, the viewer state of the user
+ * who made it is overlaid with the pending state.
+ * <p>
+ * Durability: an accepted tap is only in this instance's memory until its flush commits, which is at most
+ * one flush interval later. The writes of a failed batch are re-queued up to
+ * {@code tweeter.write-behind.max-attempts} times and then dropped and logged, so a batch that can never be
+ * written does not fill the queue. A crash loses the taps accepted since the last flush. A graceful shutdown
+ * flushes the queue. When the queue holds {@code tweeter.write-behind.capacity} writes, new taps are
+ * rejected with 429 Too Many Requests.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EngagementWriteBehindQueue {
+
+    // Written without a VALUES clause so that the MySQL driver does not rewrite the batch into one multi-row
+    // insert, which would report no per-row result
+    private static final String INSERT_SQL =
+            "INSERT IGNORE INTO %s (user_id, tweet_id, created_at) SELECT :userId, :tweetId, :createdAt FROM DUAL";
+    private static final String DELETE_SQL = "DELETE FROM %s WHERE user_id = :userId AND tweet_id = :tweetId";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CounterRepository counterRepository;
+    private final TimelineService timelineService;
+    private final TimelineCache timelineCache;
+
+    @Value("${tweeter.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${tweeter.write-behind.capacity:100000}")
+    private int capacity;
+
+    @Value("${tweeter.write-behind.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${tweeter.write-behind.max-attempts:3}")
+    private int maxAttempts;
+
+    private final Object lock = new Object();
+    private Map<Key, Pending> pending = new LinkedHashMap<>();
+    private Map<Key, Pending> inFlight = Map.of();
+
+    /**
+     * @return true if likes and retweets are written behind; otherwise, false.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Toggles a like or retweet of a user on a tweet.
+     *
+     * @param engagement The kind of engagement.
+     * @param userId     The ID of the user.
+     * @param tweetId    The ID of the tweet.
+     * @param persisted  Reads whether the engagement is stored, used when nothing is pending for it.
+     * @return true if the engagement is now active; false if it was undone.
+     * @throws WriteBackpressureException If the queue is full.
+     */
+    public boolean toggle(Engagement engagement, Long userId, Long tweetId, BooleanSupplier persisted)
+            throws WriteBackpressureException {
+        Key key = new Key(engagement, userId, tweetId);
+
+        Boolean known;
+        synchronized (lock) {
+            known = knownState(key);
+        }
+        boolean stored = known == null && persisted.getAsBoolean();
+
+        synchronized (lock) {
+            known = knownState(key);
+            boolean active = !(known == null ? stored : known);
+
+            if (pending.remove(key) != null) { // Undoes the pending tap
+                return active;
+            }
+            if (pending.size() >= capacity) {
+                throw new WriteBackpressureException("Too many pending likes and retweets, retry later");
+            }
+
+            pending.put(key, new Pending(active, LocalDateTime.now(), 0));
+            return active;
+        }
+    }
+
+    /**
+     * Overlays the pending likes or retweets of a user onto the set of tweets stored as engaged.
+     *
+     * @param engagement     The kind of engagement.
+     * @param userId         The ID of the user.
+     * @param tweetIds       The IDs of the tweets to overlay.
+     * @param engagedTweetIds The IDs of the tweets stored as engaged, updated in place.
+     */
+    public void overlay(Engagement engagement, Long userId, Collection<Long> tweetIds, Set<Long> engagedTweetIds) {
+        if (!enabled) {
+            return;
+        }
+
+        synchronized (lock) {
+            for (Long tweetId : tweetIds) {
+                Boolean active = knownState(new Key(engagement, userId, tweetId));
+                if (Boolean.TRUE.equals(active)) {
+                    engagedTweetIds.add(tweetId);
+                } else if (Boolean.FALSE.equals(active)) {
+                    engagedTweetIds.remove(tweetId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes all pending likes and retweets. Writes of a failed batch are re-queued, unless a newer tap
+     * replaced them in the meantime or they have failed {@code tweeter.write-behind.max-attempts} times,
+     * in which case they are dropped.
+     */
+    @Scheduled(fixedDelayString = "${tweeter.write-behind.flush-interval-ms:500}")
+    public void flush() {
+        Map<Key, Pending> batch;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            inFlight = batch;
+            pending = new LinkedHashMap<>();
+        }
+
+        List<Map.Entry<Key, Pending>> writes = new ArrayList<>(batch.entrySet());
+        try {
+            for (int from = 0; from < writes.size(); from += batchSize) {
+                List<Map.Entry<Key, Pending>> chunk = writes.subList(from, Math.min(from + batchSize, writes.size()));
+                try {
+                    transactionTemplate.executeWithoutResult(status -> write(chunk));
+                } catch (RuntimeException e) {
+                    requeue(chunk, e);
+                }
+            }
+        } finally {
+            synchronized (lock) {
+                inFlight = Map.of();
+            }
+        }
+    }
+
+    /**
+     * Re-queues the writes of a failed batch, dropping those that have failed too often.
+     *
+     * @param writes The writes of the batch.
+     * @param cause  The failure.
+     */
+    private void requeue(List<Map.Entry<Key, Pending>> writes, RuntimeException cause) {
+        int dropped = 0;
+
+        synchronized (lock) {
+            for (Map.Entry<Key, Pending> write : writes) {
+                Pending state = write.getValue();
+                if (state.attempts() + 1 >= maxAttempts) {
+                    dropped++;
+                    continue;
+                }
+                pending.putIfAbsent(write.getKey(), new Pending(state.active(), state.at(), state.attempts() + 1));
+            }
+        }
+
+        if (dropped > 0) {
+            log.error("Dropped {} likes and retweets after {} failed writes", dropped, maxAttempts, cause);
+        } else {
+            log.warn("Failed to write {} likes and retweets, re-queued", writes.size(), cause);
+        }
+    }
+
+    /**
+     * Flushes the pending writes before the application shuts down.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Writes one batch of likes and retweets in the current transaction.
+     *
+     * @param writes The writes.
+     */
+    private void write(List<Map.Entry<Key, Pending>> writes) {
+        Set<Long> changedUserIds = new HashSet<>();
+
+        for (Engagement engagement : Engagement.values()) {
+            List<Map.Entry<Key, Pending>> inserts = new ArrayList<>();
+            List<Map.Entry<Key, Pending>> deletes = new ArrayList<>();
+            for (Map.Entry<Key, Pending> write : writes) {
+                if (write.getKey().engagement() == engagement) {
+                    (write.getValue().active() ? inserts : deletes).add(write);
+                }
+            }
+
+            List<Map.Entry<Key, Pending>> inserted = execute(INSERT_SQL.formatted(engagement.table), inserts);
+            List<Map.Entry<Key, Pending>> deleted = execute(DELETE_SQL.formatted(engagement.table), deletes);
+
+            Map<Long, Integer> deltas = new HashMap<>();
+            inserted.forEach(write -> deltas.merge(write.getKey().tweetId(), 1, Integer::sum));
+            deleted.forEach(write -> deltas.merge(write.getKey().tweetId(), -1, Integer::sum));
+            deltas.forEach((tweetId, delta) -> {
+                if (delta != 0) {
+                    engagement.incrementCount(counterRepository, tweetId, delta);
+                }
+            });
+
+            if (engagement == Engagement.RETWEET) {
+                for (Map.Entry<Key, Pending> write : inserted) {
+                    timelineService.fanOutRetweet(write.getKey().tweetId(), write.getKey().userId(),
+                            write.getValue().at());
+                }
+                for (Map.Entry<Key, Pending> write : deleted) {
+                    timelineService.removeRetweet(write.getKey().tweetId(), write.getKey().userId());
+                }
+            }
+
+            inserted.forEach(write -> changedUserIds.add(write.getKey().userId()));
+            deleted.forEach(write -> changedUserIds.add(write.getKey().userId()));
+        }
+
+        changedUserIds.forEach(timelineCache::invalidateHome);
+    }
+
+    /**
+     * Runs an insert or delete statement for each write as one JDBC batch.
+     *
+     * @param sql    The statement, taking the user ID, the tweet ID and the request time.
+     * @param writes The writes.
+     * @return The writes whose row was actually inserted or deleted; writes whose row was already in the
+     * requested state, e.g. written by another instance, are left out.
+     */
+    private List<Map.Entry<Key, Pending>> execute(String sql, List<Map.Entry<Key, Pending>> writes) {
+        if (writes.isEmpty()) {
+            return List.of();
+        }
+
+        int[] updateCounts = jdbcTemplate.batchUpdate(sql, writes.stream()
+                .map(write -> new MapSqlParameterSource()
+                        .addValue("userId", write.getKey().userId())
+                        .addValue("tweetId", write.getKey().tweetId())
+                        .addValue("createdAt", write.getValue().at()))
+                .toArray(SqlParameterSource[]::new));
+
+        List<Map.Entry<Key, Pending>> changed = new ArrayList<>();
+        for (int i = 0; i < writes.size(); i++) {
+            if (updateCounts[i] > 0) {
+                changed.add(writes.get(i));
+            }
+        }
+
+        return changed;
+    }
+
+    /**
+     * Retrieves the state of an engagement that is not stored yet. Must be called holding the lock.
+     *
+     * @param key The engagement.
+     * @return true or false if the engagement is pending or being flushed; null if it is not.
+     */
+    private Boolean knownState(Key key) {
+        Pending state = pending.get(key);
+        if (state == null) {
+            state = inFlight.get(key);
+        }
+
+        return state == null ? null : state.active();
+    }
+
+    /**
+     * The kinds of engagement written behind, with the table storing them.
+     */
+    public enum Engagement {
+        LIKE("likes") {
+            @Override
+            void incrementCount(CounterRepository counterRepository, Long tweetId, int delta) {
+                counterRepository.incrementLikeCount(tweetId, delta);
+            }
+        },
+        RETWEET("retweets") {
+            @Override
+            void incrementCount(CounterRepository counterRepository, Long tweetId, int delta) {
+                counterRepository.incrementRetweetCount(tweetId, delta);
+            }
+        };
+
+        private final String table;
+
+        Engagement(String table) {
+            this.table = table;
+        }
+
+        /**
+         * Adds a delta to the counter of this engagement on a tweet.
+         *
+         * @param counterRepository The counter repository.
+         * @param tweetId           The ID of the tweet.
+         * @param delta             The value to add.
+         */
+        abstract void incrementCount(CounterRepository counterRepository, Long tweetId, int delta);
+    }
+
+    /**
+     * A like or retweet of a user on a tweet.
+     */
+    private record Key(Engagement engagement, Long userId, Long tweetId) {
+    }
+
+    /**
+     * The requested state of an engagement, the time it was requested and how many writes of it failed.
+     */
+    private record Pending(boolean active, LocalDateTime at, int attempts) {
+    }
+}
@@ -1,11 +1,11 @@
 package com.habibian.tweeterclone.service;
 
+import com.habibian.tweeterclone.dto.CursorPageDTO;
 import com.habibian.tweeterclone.exception.TweetException;
 import com.habibian.tweeterclone.exception.UserException;
 import com.habibian.tweeterclone.model.Like;
 import com.habibian.tweeterclone.model.User;
-
-import java.util.List;
+import com.habibian.tweeterclone.repository.projection.LikerView;
 
 /**
  * Service interface for managing likes on tweets.
@@ -13,7 +13,7 @@ import java.util.List;
 public interface LikeService {
 
     /**
-     * Likes a tweet.
+     * Likes a tweet, or removes the like if the user already liked it.
      *
      * @param tweetId The ID of the tweet to like.
      * @param user    The user liking the tweet.
@@ -24,11 +24,13 @@ public interface LikeService {
     Like likeTweet(Long tweetId, User user) throws UserException, TweetException;
 
     /**
-     * Retrieves all likes for a specific tweet.
+     * Retrieves a page of the users who liked a tweet, most recent like first.
      *
-     * @param tweetId The ID of the tweet for which to retrieve likes.
-     * @return List of likes on the specified tweet.
-     * @throws TweetException If the tweet is not found.
+     * @param tweetId The ID of the tweet.
+     * @param cursor  The cursor returned with the previous page, or null for the first page.
+     * @param size    The page size.
+     * @return The likers of the requested page and the cursor of the next page.
+     * @throws TweetException If the tweet is not found or the cursor is invalid.
      */
-    List<Like> getAllLikes(Long tweetId) throws TweetException;
+    CursorPageDTO<LikerView> getLikers(Long tweetId, String cursor, int size) throws TweetException;
 }
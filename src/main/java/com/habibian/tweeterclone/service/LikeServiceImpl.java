@@ -1,14 +1,26 @@
 package com.habibian.tweeterclone.service;
 
+import com.habibian.tweeterclone.cache.TimelineCache;
+import com.habibian.tweeterclone.dto.CursorPageDTO;
 import com.habibian.tweeterclone.exception.TweetException;
+import com.habibian.tweeterclone.exception.TweetNotFoundException;
 import com.habibian.tweeterclone.exception.UserException;
 import com.habibian.tweeterclone.model.Like;
 import com.habibian.tweeterclone.model.Tweet;
 import com.habibian.tweeterclone.model.User;
+import com.habibian.tweeterclone.repository.CounterRepository;
 import com.habibian.tweeterclone.repository.LikeRepository;
+import com.habibian.tweeterclone.repository.TweetRepository;
+import com.habibian.tweeterclone.repository.projection.LikerView;
+import com.habibian.tweeterclone.service.EngagementWriteBehindQueue.Engagement;
+import com.habibian.tweeterclone.util.PageCursor;
+import com.habibian.tweeterclone.util.PaginationUtil;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -19,49 +31,91 @@ import java.util.List;
 public class LikeServiceImpl implements LikeService {
 
     private final LikeRepository likeRepository;
+    private final CounterRepository counterRepository;
+    private final TweetRepository tweetRepository;
     private final TweetService tweetService;
+    private final TimelineCache timelineCache;
+    private final EngagementWriteBehindQueue engagementQueue;
 
     /**
-     * Likes a tweet.
+     * Likes a tweet, or removes the like if the user already liked it.
+     * <p>
+     * The toggle is a delete of the like, falling back to an insert when nothing was deleted; the unique
+     * (user, tweet) key makes concurrent likes collapse into one row, and the like counter only moves
+     * when a row was actually inserted or deleted. With write-behind enabled, the like is queued instead
+     * and written by {@link EngagementWriteBehindQueue}.
      *
      * @param tweetId The ID of the tweet to like.
      * @param user    The user liking the tweet.
      * @return The like object representing the like on the tweet.
      * @throws UserException  If the user is not valid.
-     * @throws TweetException If the tweet is not found.
+     * @throws TweetException If the tweet is not found, or the write-behind queue is full.
      */
     @Override
+    @Transactional
     public Like likeTweet(Long tweetId, User user) throws UserException, TweetException {
-        Like isLikeExist = likeRepository.isLikeExist(user.getId(), tweetId);
+        Tweet tweet = tweetService.finById(tweetId);
+
+        int delta;
+        if (engagementQueue.isEnabled()) { // Stored and counted when the queue is flushed
+            delta = engagementQueue.toggle(Engagement.LIKE, user.getId(), tweetId,
+                    () -> likeRepository.existsByUser_IdAndTweet_Id(user.getId(), tweetId)) ? 1 : -1;
+        } else {
+            if (likeRepository.deleteLike(user.getId(), tweetId) > 0) { // Unlike
+                delta = -1;
+            } else { // Like
+                delta = likeRepository.insertLike(user.getId(), tweetId, LocalDateTime.now());
+            }
 
-        if (isLikeExist != null) {
-            likeRepository.deleteById(isLikeExist.getId());
-            return isLikeExist;
+            if (delta != 0) {
+                counterRepository.incrementLikeCount(tweetId, delta);
+            }
+        }
+
+        if (delta != 0) {
+            tweet.setLikeCount(tweet.getLikeCount() + delta);
+            timelineCache.invalidateHome(user.getId());
         }
 
-        Tweet tweet = tweetService.finById(tweetId);
         Like like = new Like();
         like.setTweet(tweet);
         like.setUser(user);
 
-        Like savedLike = likeRepository.save(like);
-
-        tweet.getLikes().add(savedLike);
-        tweetService.saveExistTweet(tweet);
-
-        return savedLike;
+        return like;
     }
 
     /**
-     * Retrieves all likes for a specific tweet.
+     * Retrieves a page of the users who liked a tweet, most recent like first.
+     * <p>
+     * The page is read with a single projection query over the (tweet, like time) index of the likes,
+     * joined to the liking users; no entity graph is loaded.
      *
-     * @param tweetId The ID of the tweet for which to retrieve likes.
-     * @return List of likes on the specified tweet.
-     * @throws TweetException If the tweet is not found.
+     * @param tweetId The ID of the tweet.
+     * @param cursor  The cursor returned with the previous page, or null for the first page.
+     * @param size    The page size.
+     * @return The likers of the requested page and the cursor of the next page.
+     * @throws TweetException If the tweet is not found or the cursor is invalid.
      */
     @Override
-    public List<Like> getAllLikes(Long tweetId) throws TweetException {
-        Tweet tweet = tweetService.finById(tweetId);
-        return likeRepository.findAllByTweetId(tweetId);
+    public CursorPageDTO<LikerView> getLikers(Long tweetId, String cursor, int size) throws TweetException {
+        if (!tweetRepository.existsById(tweetId)) {
+            throw new TweetNotFoundException(tweetId);
+        }
+
+        Pageable limit = PaginationUtil.limit(size);
+
+        List<LikerView> likers;
+        if (cursor == null) {
+            likers = likeRepository.findLikers(tweetId, limit);
+        } else {
+            PageCursor pageCursor = PaginationUtil.decodeCursor(cursor, TweetException::new);
+            likers = likeRepository.findLikersBefore(tweetId, pageCursor.getCreatedAt(), pageCursor.getId(), limit);
+        }
+
+        return CursorPageDTO.<LikerView>builder()
+                .items(likers)
+                .nextCursor(PaginationUtil.nextCursor(likers, size,
+                        liker -> new PageCursor(liker.getLikedAt(), liker.getId())))
+                .build();
     }
 }
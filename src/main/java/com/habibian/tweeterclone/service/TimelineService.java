@@ -0,0 +1,69 @@
+package com.habibian.tweeterclone.service;
+
+import com.habibian.tweeterclone.dto.CursorPageDTO;
+import com.habibian.tweeterclone.exception.TweetException;
+import com.habibian.tweeterclone.model.Tweet;
+import com.habibian.tweeterclone.model.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Service interface for maintaining and reading users' home timelines.
+ */
+public interface TimelineService {
+
+    /**
+     * Pushes a newly created tweet into the home timelines of its author and the author's followers.
+     *
+     * @param tweet The created tweet.
+     */
+    void fanOutTweet(Tweet tweet);
+
+    /**
+     * Pushes a retweeted tweet into the home timelines of the retweeting user and their followers,
+     * moving it up to the retweet time where it is already present.
+     *
+     * @param tweetId     The ID of the retweeted tweet.
+     * @param userId      The ID of the user who retweeted it.
+     * @param retweetedAt The time of the retweet.
+     */
+    void fanOutRetweet(Long tweetId, Long userId, LocalDateTime retweetedAt);
+
+    /**
+     * Removes an undone retweet from the home timelines it was pushed into, except those that still receive
+     * the tweet from its author or another retweet.
+     *
+     * @param tweetId The ID of the retweeted tweet.
+     * @param userId  The ID of the user who undid the retweet.
+     */
+    void removeRetweet(Long tweetId, Long userId);
+
+    /**
+     * Removes a tweet from every home timeline.
+     *
+     * @param tweetId The ID of the removed tweet.
+     */
+    void removeTweet(Long tweetId);
+
+    /**
+     * Retrieves a page of a user's home timeline, newest first.
+     *
+     * @param user   The user owning the timeline.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param size   The page size.
+     * @return The tweets of the requested page and the cursor of the next page.
+     * @throws TweetException If the cursor is invalid.
+     */
+    CursorPageDTO<Tweet> getHomeTimeline(User user, String cursor, int size) throws TweetException;
+
+    /**
+     * Retrieves a page of a user's profile timeline: their original tweets and their retweets, newest first.
+     *
+     * @param userId The ID of the user.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param size   The page size.
+     * @return The tweets of the requested page and the cursor of the next page.
+     * @throws TweetException If the cursor is invalid.
+     */
+    CursorPageDTO<Tweet> getUserTimeline(Long userId, String cursor, int size) throws TweetException;
+}
@@ -0,0 +1,251 @@
+package com.habibian.tweeterclone.service;
+
+import com.habibian.tweeterclone.dto.CursorPageDTO;
+import com.habibian.tweeterclone.exception.TweetException;
+import com.habibian.tweeterclone.model.Retweet;
+import com.habibian.tweeterclone.model.TimelineEntry;
+import com.habibian.tweeterclone.model.Tweet;
+import com.habibian.tweeterclone.model.User;
+import com.habibian.tweeterclone.repository.FollowRepository;
+import com.habibian.tweeterclone.repository.RetweetRepository;
+import com.habibian.tweeterclone.repository.TimelineEntryRepository;
+import com.habibian.tweeterclone.repository.TweetRepository;
+import com.habibian.tweeterclone.repository.UserRepository;
+import com.habibian.tweeterclone.util.PageCursor;
+import com.habibian.tweeterclone.util.PaginationUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of the {@link TimelineService} interface using a hybrid fan-out strategy.
+ * <p>
+ * Tweets of regular users are pushed into their followers' materialized timelines when they are
+ * written. Users with more followers than {@code tweeter.timeline.celebrity-threshold} are not fanned
+ * out; their tweets are merged into their followers' timelines when those are read.
+ */
+@Service
+@RequiredArgsConstructor
+public class TimelineServiceImpl implements TimelineService {
+
+    private final TimelineEntryRepository timelineEntryRepository;
+    private final FollowRepository followRepository;
+    private final RetweetRepository retweetRepository;
+    private final TweetRepository tweetRepository;
+    private final UserRepository userRepository;
+
+    @Value("${tweeter.timeline.celebrity-threshold:10000}")
+    private long celebrityThreshold;
+
+    /**
+     * Pushes a newly created tweet into the home timelines of its author and the author's followers.
+     *
+     * @param tweet The created tweet.
+     */
+    @Override
+    @Transactional
+    public void fanOutTweet(Tweet tweet) {
+        Long authorId = tweet.getUser().getId();
+
+        timelineEntryRepository.insertEntry(authorId, tweet.getId(), tweet.getCreatedAt());
+
+        if (!isCelebrity(authorId)) {
+            timelineEntryRepository.fanOutToFollowers(authorId, tweet.getId(), tweet.getCreatedAt());
+        }
+    }
+
+    /**
+     * Pushes a retweeted tweet into the home timelines of the retweeting user and their followers,
+     * moving it up to the retweet time where it is already present.
+     *
+     * @param tweetId     The ID of the retweeted tweet.
+     * @param userId      The ID of the user who retweeted it.
+     * @param retweetedAt The time of the retweet.
+     */
+    @Override
+    @Transactional
+    public void fanOutRetweet(Long tweetId, Long userId, LocalDateTime retweetedAt) {
+        timelineEntryRepository.upsertEntry(userId, tweetId, retweetedAt);
+
+        if (!isCelebrity(userId)) {
+            timelineEntryRepository.upsertToFollowers(userId, tweetId, retweetedAt);
+        }
+    }
+
+    /**
+     * Removes an undone retweet from the home timelines of the user and their followers, except those that
+     * still receive the tweet from its author or another retweet. Must be called after the retweet is deleted.
+     *
+     * @param tweetId The ID of the retweeted tweet.
+     * @param userId  The ID of the user who undid the retweet.
+     */
+    @Override
+    @Transactional
+    public void removeRetweet(Long tweetId, Long userId) {
+        timelineEntryRepository.deleteRetweetEntries(tweetId, userId);
+    }
+
+    /**
+     * Removes a tweet from every home timeline.
+     *
+     * @param tweetId The ID of the removed tweet.
+     */
+    @Override
+    @Transactional
+    public void removeTweet(Long tweetId) {
+        timelineEntryRepository.deleteAllByTweetId(tweetId);
+    }
+
+    /**
+     * Retrieves a page of a user's home timeline, newest first.
+     * <p>
+     * The page is merged from one range scan over the user's materialized entries and, if the user
+     * follows celebrity accounts, one range scan over those accounts' tweets. A celebrity tweet that was
+     * retweeted into the user's entries is only read from its entry, at the retweet time, so it appears
+     * once across all pages.
+     *
+     * @param user   The user owning the timeline.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param size   The page size.
+     * @return The tweets of the requested page and the cursor of the next page.
+     * @throws TweetException If the cursor is invalid.
+     */
+    @Override
+    public CursorPageDTO<Tweet> getHomeTimeline(User user, String cursor, int size) throws TweetException {
+        PageCursor pageCursor = cursor == null ? null : PaginationUtil.decodeCursor(cursor, TweetException::new);
+        Pageable limit = PaginationUtil.limit(size);
+
+        List<TimelineEntry> entries = pageCursor == null
+                ? timelineEntryRepository.findPage(user.getId(), limit)
+                : timelineEntryRepository.findPageBefore(user.getId(),
+                pageCursor.getCreatedAt(), pageCursor.getId(), limit);
+
+        List<Long> celebrityIds = followRepository.findFollowedCelebrityIds(user.getId(), celebrityThreshold);
+        List<Tweet> celebrityTweets;
+        if (celebrityIds.isEmpty()) {
+            celebrityTweets = List.of();
+        } else if (pageCursor == null) {
+            celebrityTweets = tweetRepository.findTimelineByUserIdsOutsideHome(user.getId(), celebrityIds, limit);
+        } else {
+            celebrityTweets = tweetRepository.findTimelineByUserIdsOutsideHomeBefore(user.getId(), celebrityIds,
+                    pageCursor.getCreatedAt(), pageCursor.getId(), limit);
+        }
+
+        List<Long> entryTweetIds = entries.stream().map(entry -> entry.getId().getTweetId()).toList();
+        Map<Long, Tweet> entryTweets = tweetRepository.findAllWithUserByIdIn(entryTweetIds).stream()
+                .collect(Collectors.toMap(Tweet::getId, Function.identity()));
+
+        List<TimelineItem> items = new ArrayList<>();
+        for (TimelineEntry entry : entries) {
+            Tweet tweet = entryTweets.get(entry.getId().getTweetId());
+            if (tweet != null) {
+                items.add(new TimelineItem(entry.getCreatedAt(), tweet));
+            }
+        }
+        for (Tweet tweet : celebrityTweets) {
+            items.add(new TimelineItem(tweet.getCreatedAt(), tweet));
+        }
+
+        return toPage(items, entries.size() == size || celebrityTweets.size() == size, size);
+    }
+
+    /**
+     * Retrieves a page of a user's profile timeline: their original tweets at their creation time and
+     * their retweets at their retweet time, newest first.
+     * <p>
+     * Both sources are read with a keyset range scan of a (user, time) index, one page each, and merged.
+     * The index bounds each scan to one page, but the scan is not index-only: the retweet, tweet and author
+     * rows of the page are read to build the entities. A tweet the user retweeted is only read from the
+     * retweets, so it appears once across all pages.
+     *
+     * @param userId The ID of the user.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param size   The page size.
+     * @return The tweets of the requested page and the cursor of the next page.
+     * @throws TweetException If the cursor is invalid.
+     */
+    @Override
+    public CursorPageDTO<Tweet> getUserTimeline(Long userId, String cursor, int size) throws TweetException {
+        PageCursor pageCursor = cursor == null ? null : PaginationUtil.decodeCursor(cursor, TweetException::new);
+        Pageable limit = PaginationUtil.limit(size);
+
+        List<Tweet> tweets;
+        List<Retweet> retweets;
+        if (pageCursor == null) {
+            tweets = tweetRepository.findNotRetweetedByUser(userId, limit);
+            retweets = retweetRepository.findByUser(userId, limit);
+        } else {
+            tweets = tweetRepository.findNotRetweetedByUserBefore(userId,
+                    pageCursor.getCreatedAt(), pageCursor.getId(), limit);
+            retweets = retweetRepository.findByUserBefore(userId,
+                    pageCursor.getCreatedAt(), pageCursor.getId(), limit);
+        }
+
+        List<TimelineItem> items = new ArrayList<>();
+        for (Tweet tweet : tweets) {
+            items.add(new TimelineItem(tweet.getCreatedAt(), tweet));
+        }
+        for (Retweet retweet : retweets) {
+            items.add(new TimelineItem(retweet.getCreatedAt(), retweet.getTweet()));
+        }
+
+        return toPage(items, tweets.size() == size || retweets.size() == size, size);
+    }
+
+    /**
+     * Builds a timeline page from items merged from several sources, each read one page long:
+     * the newest items first. The sources are disjoint, each tweet being read only from the source
+     * holding its latest activity, so a tweet appears once across pages.
+     *
+     * @param items   The merged items.
+     * @param hasMore Whether any source may have more items.
+     * @param size    The page size.
+     * @return The tweets of the page and the cursor of the next page.
+     */
+    private CursorPageDTO<Tweet> toPage(List<TimelineItem> items, boolean hasMore, int size) {
+        items.sort(Comparator.comparing(TimelineItem::activityAt)
+                .thenComparing(item -> item.tweet().getId())
+                .reversed());
+
+        Map<Long, TimelineItem> page = new LinkedHashMap<>();
+        for (TimelineItem item : items) {
+            if (page.size() == size) {
+                break;
+            }
+            page.putIfAbsent(item.tweet().getId(), item);
+        }
+
+        TimelineItem last = page.isEmpty() ? null : new ArrayList<>(page.values()).get(page.size() - 1);
+        String nextCursor = hasMore && last != null
+                ? new PageCursor(last.activityAt(), last.tweet().getId()).encode()
+                : null;
+
+        return CursorPageDTO.<Tweet>builder()
+                .items(page.values().stream().map(TimelineItem::tweet).toList())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Checks whether a user has too many followers to be fanned out on write.
+     *
+     * @param userId The ID of the user.
+     * @return true if the user's tweets are merged on read; otherwise, false.
+     */
+    private boolean isCelebrity(Long userId) {
+        return userRepository.findFollowersCount(userId) > celebrityThreshold;
+    }
+
+    /**
+     * A tweet in a timeline together with the time it entered the timeline.
+     */
+    private record TimelineItem(LocalDateTime activityAt, Tweet tweet) {
+    }
+}
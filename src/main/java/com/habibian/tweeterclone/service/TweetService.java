@@ -1,5 +1,7 @@
 package com.habibian.tweeterclone.service;
 
+import com.habibian.tweeterclone.dto.CursorPageDTO;
+import com.habibian.tweeterclone.dto.ViewerState;
 import com.habibian.tweeterclone.exception.TweetException;
 import com.habibian.tweeterclone.exception.UserException;
 import com.habibian.tweeterclone.model.Tweet;
@@ -24,11 +26,65 @@ public interface TweetService {
     Tweet createTweet(Tweet req, User user) throws UserException;
 
     /**
-     * Retrieves all tweets.
+     * Imports tweets of a user in bulk, such as an archive exported from another service.
      *
-     * @return List of all tweets.
+     * @param reqs The tweets to import, with their content and optionally their creation time.
+     * @param user The user the tweets belong to.
+     * @return The number of imported tweets.
+     * @throws TweetException If there are more tweets than one import accepts.
      */
-    List<Tweet> findAllTweets();
+    int importTweets(List<Tweet> reqs, User user) throws TweetException;
+
+    /**
+     * Retrieves a page of tweets, newest first.
+     *
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param size   The page size.
+     * @return The tweets of the requested page.
+     * @throws TweetException If the cursor is invalid.
+     */
+    List<Tweet> findAllTweets(String cursor, int size) throws TweetException;
+
+    /**
+     * Retrieves a page of the direct replies to a tweet, oldest first.
+     *
+     * @param tweetId The ID of the replied tweet.
+     * @param cursor  The cursor returned with the previous page, or null for the first page.
+     * @param size    The page size.
+     * @return The replies of the requested page.
+     * @throws TweetException If the tweet is not found or the cursor is invalid.
+     */
+    List<Tweet> findReplies(Long tweetId, String cursor, int size) throws TweetException;
+
+    /**
+     * Retrieves the ancestors of a tweet, root first.
+     *
+     * @param tweet The tweet.
+     * @return The ancestors of the tweet.
+     */
+    List<Tweet> findAncestors(Tweet tweet);
+
+    /**
+     * Retrieves the descendants of a tweet down to a relative depth, in thread order: each reply
+     * comes after its parent, and replies to the same parent are ordered by creation time.
+     *
+     * @param tweet    The tweet.
+     * @param maxDepth The number of levels of replies to load.
+     * @param limit    The maximum number of descendants to load.
+     * @return The descendants of the tweet.
+     */
+    List<Tweet> findDescendants(Tweet tweet, int maxDepth, int limit);
+
+    /**
+     * Searches tweets and replies containing every word, hashtag and mention of a query.
+     *
+     * @param query  The search query.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param size   The page size.
+     * @return The matching tweets of the requested page, best match first, and the cursor of the next page.
+     * @throws TweetException If the cursor is invalid.
+     */
+    CursorPageDTO<Tweet> searchTweets(String query, String cursor, int size) throws TweetException;
 
     /**
      * Retweets a tweet.
@@ -83,20 +139,15 @@ public interface TweetService {
     Tweet createReply(TweetReplyRequest req, User user) throws UserException, TweetException;
 
     /**
-     * Retrieves all tweets of a specific user.
-     *
-     * @param user The user whose tweets are to be retrieved.
-     * @return List of tweets by the user.
-     */
-    List<Tweet> getUserTweets(User user);
-
-    /**
-     * Retrieves all tweets liked by a specific user.
+     * Retrieves a page of the tweets liked by a user, most recently liked first.
      *
-     * @param user The user whose liked tweets are to be retrieved.
-     * @return List of tweets liked by the user.
+     * @param userId The ID of the user.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param size   The page size.
+     * @return The tweets of the requested page and the cursor of the next page.
+     * @throws TweetException If the cursor is invalid.
      */
-    List<Tweet> findByLikesContainsUser(User user);
+    CursorPageDTO<Tweet> findLikedTweets(Long userId, String cursor, int size) throws TweetException;
 
     /**
      * Saves an existing tweet.
@@ -105,4 +156,13 @@ public interface TweetService {
      * @return The saved tweet.
      */
     Tweet saveExistTweet(Tweet tweet);
+
+    /**
+     * Retrieves which of the given tweets a user has liked and retweeted.
+     *
+     * @param tweets The tweets to check.
+     * @param user   The requesting user.
+     * @return The user's viewer state for the tweets.
+     */
+    ViewerState getViewerState(List<Tweet> tweets, User user);
 }
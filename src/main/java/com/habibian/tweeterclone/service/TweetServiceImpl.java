@@ -1,16 +1,43 @@
 package com.habibian.tweeterclone.service;
 
+import com.habibian.tweeterclone.cache.TimelineCache;
+import com.habibian.tweeterclone.dto.CursorPageDTO;
+import com.habibian.tweeterclone.dto.ViewerState;
 import com.habibian.tweeterclone.exception.TweetException;
+import com.habibian.tweeterclone.exception.TweetNotFoundException;
 import com.habibian.tweeterclone.exception.UserException;
 import com.habibian.tweeterclone.model.Tweet;
 import com.habibian.tweeterclone.model.User;
+import com.habibian.tweeterclone.repository.CounterRepository;
+import com.habibian.tweeterclone.repository.LikeRepository;
+import com.habibian.tweeterclone.repository.RetweetRepository;
 import com.habibian.tweeterclone.repository.TweetRepository;
+import com.habibian.tweeterclone.repository.projection.LikedTweetView;
 import com.habibian.tweeterclone.request.TweetReplyRequest;
+import com.habibian.tweeterclone.search.TweetSearchIndex;
+import com.habibian.tweeterclone.search.TweetSearchResult;
+import com.habibian.tweeterclone.service.EngagementWriteBehindQueue.Engagement;
+import com.habibian.tweeterclone.util.PageCursor;
+import com.habibian.tweeterclone.util.PaginationUtil;
+import com.habibian.tweeterclone.util.TransactionUtil;
+import com.habibian.tweeterclone.util.TweetUtil;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Implementation of the {@link TweetService} interface that provides
@@ -21,6 +48,21 @@ import java.util.List;
 public class TweetServiceImpl implements TweetService {
 
     private final TweetRepository tweetRepository;
+    private final CounterRepository counterRepository;
+    private final LikeRepository likeRepository;
+    private final RetweetRepository retweetRepository;
+    private final TimelineService timelineService;
+    private final TimelineCache timelineCache;
+    private final EngagementWriteBehindQueue engagementQueue;
+    private final TweetSearchIndex tweetSearchIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    @Value("${tweeter.import.max-tweets:10000}")
+    private int maxImportTweets;
+
+    @Value("${tweeter.import.chunk-size:1000}")
+    private int importChunkSize;
 
     /**
      * Creates a new tweet.
@@ -32,48 +74,258 @@ public class TweetServiceImpl implements TweetService {
      */
     @Override
     public Tweet createTweet(Tweet req, User user) throws UserException {
+        Tweet savedTweet = tweetRepository.save(newTweet(req, user, LocalDateTime.now()));
+        timelineService.fanOutTweet(savedTweet);
+        timelineCache.invalidateHome(user.getId());
+        TransactionUtil.runAfterCommit(() -> tweetSearchIndex.index(savedTweet));
+
+        return savedTweet;
+    }
+
+    /**
+     * Imports tweets of a user in bulk, such as an archive exported from another service.
+     * <p>
+     * The tweets are saved in chunks of {@code tweeter.import.chunk-size}, each in its own transaction, so
+     * Hibernate sends them as JDBC insert batches; a failed chunk leaves the previous chunks imported. The
+     * persistence context is flushed and cleared after each chunk, since the request's open session would
+     * otherwise keep every imported tweet managed until the response is written.
+     * <p>
+     * Imported tweets keep their creation time, if it is not in the future, and are added to the author's
+     * profile and to search, but not pushed into home timelines. Their time-ordered IDs are issued at import,
+     * so lists ordered by ID show them at their import time.
+     *
+     * @param reqs The tweets to import, with their content and optionally their creation time.
+     * @param user The user the tweets belong to.
+     * @return The number of imported tweets.
+     * @throws TweetException If there are more tweets than {@code tweeter.import.max-tweets}.
+     */
+    @Override
+    public int importTweets(List<Tweet> reqs, User user) throws TweetException {
+        if (reqs.size() > maxImportTweets) {
+            throw new TweetException("Cannot import more than " + maxImportTweets + " tweets at once");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int from = 0; from < reqs.size(); from += importChunkSize) {
+            List<Tweet> chunk = reqs.subList(from, Math.min(from + importChunkSize, reqs.size())).stream()
+                    .map(req -> newTweet(req, user,
+                            req.getCreatedAt() == null || req.getCreatedAt().isAfter(now) ? now : req.getCreatedAt()))
+                    .toList();
+
+            transactionTemplate.executeWithoutResult(status -> {
+                tweetRepository.saveAll(chunk);
+                entityManager.flush();
+                entityManager.clear();
+            });
+            chunk.forEach(tweetSearchIndex::index);
+        }
+
+        return reqs.size();
+    }
+
+    /**
+     * Builds a new original tweet from a request.
+     *
+     * @param req       The tweet request containing the tweet content.
+     * @param user      The user posting the tweet.
+     * @param createdAt The creation time of the tweet.
+     * @return The unsaved tweet.
+     */
+    private Tweet newTweet(Tweet req, User user, LocalDateTime createdAt) {
         Tweet tweet = new Tweet();
         tweet.setContent(req.getContent());
-        tweet.setCreatedAt(LocalDateTime.now());
+        tweet.setCreatedAt(createdAt);
         tweet.setImage(req.getImage());
         tweet.setUser(user);
         tweet.setIsReply(false);
         tweet.setIsTweet(true);
         tweet.setVideo(req.getVideo());
 
-        return tweetRepository.save(tweet);
+        return tweet;
+    }
+
+    /**
+     * Retrieves a page of tweets, newest first.
+     *
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param size   The page size.
+     * @return The tweets of the requested page.
+     * @throws TweetException If the cursor is invalid.
+     */
+    @Override
+    public List<Tweet> findAllTweets(String cursor, int size) throws TweetException {
+        if (cursor == null) {
+            return tweetRepository.findTimeline(PaginationUtil.limit(size));
+        }
+
+        PageCursor pageCursor = PaginationUtil.decodeCursor(cursor, TweetException::new);
+
+        return tweetRepository.findTimelineBefore(pageCursor.getId(), PaginationUtil.limit(size));
+    }
+
+    /**
+     * Retrieves a page of the direct replies to a tweet, oldest first.
+     * <p>
+     * A page with replies proves the tweet exists, so the tweet is only looked up when the page is empty.
+     *
+     * @param tweetId The ID of the replied tweet.
+     * @param cursor  The cursor returned with the previous page, or null for the first page.
+     * @param size    The page size.
+     * @return The replies of the requested page.
+     * @throws TweetException If the tweet is not found or the cursor is invalid.
+     */
+    @Override
+    public List<Tweet> findReplies(Long tweetId, String cursor, int size) throws TweetException {
+        List<Tweet> replies;
+        if (cursor == null) {
+            replies = tweetRepository.findReplies(tweetId, PaginationUtil.limit(size));
+        } else {
+            PageCursor pageCursor = PaginationUtil.decodeCursor(cursor, TweetException::new);
+            replies = tweetRepository.findRepliesAfter(tweetId, pageCursor.getId(), PaginationUtil.limit(size));
+        }
+
+        if (replies.isEmpty() && !tweetRepository.existsById(tweetId)) {
+            throw new TweetNotFoundException(tweetId);
+        }
+
+        return replies;
+    }
+
+    /**
+     * Retrieves the ancestors of a tweet, root first, from its materialized path.
+     * <p>
+     * A reply below {@link TweetUtil#MAX_THREAD_DEPTH} shares its parent's path, so the ancestors missing
+     * from its path are followed up from its parent, one lookup per level beyond the cap.
+     *
+     * @param tweet The tweet.
+     * @return The ancestors of the tweet.
+     */
+    @Override
+    public List<Tweet> findAncestors(Tweet tweet) {
+        List<Long> ancestorIds = new ArrayList<>(TweetUtil.ancestorIds(tweet.getPath()));
+        Long pathParentId = ancestorIds.isEmpty() ? null : ancestorIds.get(ancestorIds.size() - 1);
+        int pathLength = ancestorIds.size();
+
+        Long parentId = tweet.getReplyFor() != null ? tweet.getReplyFor().getId() : null;
+        while (parentId != null && !parentId.equals(pathParentId)) {
+            ancestorIds.add(pathLength, parentId);
+            parentId = tweetRepository.findById(parentId)
+                    .map(Tweet::getReplyFor)
+                    .map(Tweet::getId)
+                    .orElse(null);
+        }
+
+        if (ancestorIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Tweet> ancestorsById = tweetRepository.findAllWithUserByIdIn(ancestorIds).stream()
+                .collect(Collectors.toMap(Tweet::getId, Function.identity()));
+
+        return ancestorIds.stream().map(ancestorsById::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Retrieves the descendants of a tweet down to a relative depth, in thread order: each reply comes
+     * right after its parent, followed by its own replies, and replies to the same parent are ordered by
+     * creation time.
+     * <p>
+     * The descendants share the tweet's conversation and path prefix, so they are read with a single
+     * range scan of the (conversation_id, path) index. The scan returns them grouped by parent, which keeps
+     * every parent within the limit of its replies; they are then put in thread order by
+     * {@link TweetUtil#threadOrder(Tweet, List)}. A tweet below {@link TweetUtil#MAX_THREAD_DEPTH} has no
+     * path prefix of its own, so only its direct replies are loaded.
+     *
+     * @param tweet    The tweet.
+     * @param maxDepth The number of levels of replies to load.
+     * @param limit    The maximum number of descendants to load.
+     * @return The descendants of the tweet.
+     */
+    @Override
+    public List<Tweet> findDescendants(Tweet tweet, int maxDepth, int limit) {
+        if (tweet.getDepth() >= TweetUtil.MAX_THREAD_DEPTH) {
+            return tweetRepository.findReplies(tweet.getId(), PaginationUtil.limit(limit));
+        }
+
+        Long conversationId = tweet.getConversationId() != null ? tweet.getConversationId() : tweet.getId();
+        List<Tweet> descendants = tweetRepository.findThreadDescendants(conversationId,
+                TweetUtil.descendantPathPrefix(tweet) + "%", tweet.getDepth() + maxDepth, PaginationUtil.limit(limit));
+
+        return TweetUtil.threadOrder(tweet, descendants);
     }
 
     /**
-     * Retrieves all tweets.
+     * Searches tweets and replies containing every word, hashtag and mention of a query.
+     * <p>
+     * Matches are found and ranked by the in-memory {@link TweetSearchIndex}; only the tweets of the page
+     * are read from the database.
      *
-     * @return List of all tweets.
+     * @param query  The search query.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param size   The page size.
+     * @return The matching tweets of the requested page, best match first, and the cursor of the next page.
+     * @throws TweetException If the cursor is invalid.
      */
     @Override
-    public List<Tweet> findAllTweets() {
-        return tweetRepository.findAllByIsTweetTrueOrderByCreatedAtDesc();
+    public CursorPageDTO<Tweet> searchTweets(String query, String cursor, int size) throws TweetException {
+        Long beforeId = cursor == null ? null : PaginationUtil.decodeCursor(cursor, TweetException::new).getId();
+        TweetSearchResult result = tweetSearchIndex.search(query, beforeId, size);
+
+        Map<Long, Tweet> tweetsById = result.tweetIds().isEmpty()
+                ? Map.of()
+                : tweetRepository.findAllWithUserByIdIn(result.tweetIds()).stream()
+                .collect(Collectors.toMap(Tweet::getId, Function.identity()));
+
+        return CursorPageDTO.<Tweet>builder()
+                .items(result.tweetIds().stream().map(tweetsById::get).filter(Objects::nonNull).toList())
+                .nextCursor(result.lastScannedId() == null ? null : PageCursor.ofId(result.lastScannedId()).encode())
+                .build();
     }
 
     /**
-     * Retweets a tweet.
+     * Retweets a tweet. With write-behind enabled, the retweet is queued and written, counted and fanned
+     * out by {@link EngagementWriteBehindQueue}.
      *
      * @param tweetId The ID of the tweet to retweet.
      * @param user    The user retweeting the tweet.
      * @return The retweeted tweet.
      * @throws UserException  If the user is not valid.
-     * @throws TweetException If the tweet is not found.
+     * @throws TweetException If the tweet is not found, or the write-behind queue is full.
      */
     @Override
+    @Transactional
     public Tweet retweet(Long tweetId, User user) throws UserException, TweetException {
         Tweet tweet = finById(tweetId);
+        LocalDateTime retweetedAt = LocalDateTime.now();
 
-        if (tweet.getRetweetUser().contains(user)) {
-            tweet.getRetweetUser().remove(user);
+        int delta;
+        if (engagementQueue.isEnabled()) { // Stored, counted and fanned out when the queue is flushed
+            delta = engagementQueue.toggle(Engagement.RETWEET, user.getId(), tweetId,
+                    () -> retweetRepository.existsByUser_IdAndTweet_Id(user.getId(), tweetId)) ? 1 : -1;
         } else {
-            tweet.getRetweetUser().add(user);
+            if (retweetRepository.deleteRetweet(user.getId(), tweetId) > 0) { // Undo retweet
+                delta = -1;
+            } else { // Retweet
+                delta = retweetRepository.insertRetweet(user.getId(), tweetId, retweetedAt);
+            }
+
+            if (delta != 0) {
+                counterRepository.incrementRetweetCount(tweetId, delta);
+            }
+            if (delta > 0) {
+                timelineService.fanOutRetweet(tweetId, user.getId(), retweetedAt);
+            } else if (delta < 0) {
+                timelineService.removeRetweet(tweetId, user.getId());
+            }
         }
 
-        return tweetRepository.save(tweet);
+        if (delta != 0) {
+            tweet.setRetweetCount(tweet.getRetweetCount() + delta);
+            timelineCache.invalidateHome(user.getId());
+        }
+
+        return tweet;
     }
 
     /**
@@ -99,6 +351,7 @@ public class TweetServiceImpl implements TweetService {
      * @throws TweetException If the tweet is not found.
      */
     @Override
+    @Transactional
     public void deleteByTweetId(Long tweetId, Long userId) throws UserException, TweetException {
         Tweet tweet = finById(tweetId);
 
@@ -106,7 +359,15 @@ public class TweetServiceImpl implements TweetService {
             throw new UserException("You can't delete another user's tweet");
         }
 
+        retweetRepository.deleteAllByTweetId(tweetId);
         tweetRepository.deleteById(tweetId);
+        timelineService.removeTweet(tweetId);
+        timelineCache.invalidateHome(userId);
+        TransactionUtil.runAfterCommit(() -> tweetSearchIndex.remove(tweetId));
+
+        if (tweet.getReplyFor() != null) {
+            counterRepository.incrementReplyCount(tweet.getReplyFor().getId(), -1);
+        }
     }
 
     /**
@@ -125,6 +386,9 @@ public class TweetServiceImpl implements TweetService {
 
     /**
      * Creates a reply to a tweet.
+     * <p>
+     * The reply is linked to its parent by its reply_for_id column only, so creating it is one insert
+     * plus an increment of the parent's reply counter.
      *
      * @param req  The tweet reply request containing the reply content.
      * @param user The user creating the reply.
@@ -133,6 +397,7 @@ public class TweetServiceImpl implements TweetService {
      * @throws TweetException If the original tweet is not found.
      */
     @Override
+    @Transactional
     public Tweet createReply(TweetReplyRequest req, User user) throws UserException, TweetException {
         Tweet replyFor = finById(req.getTweetId());
 
@@ -144,34 +409,58 @@ public class TweetServiceImpl implements TweetService {
         tweet.setIsReply(true);
         tweet.setIsTweet(false);
         tweet.setReplyFor(replyFor);
+        tweet.setConversationId(replyFor.getConversationId() != null ? replyFor.getConversationId() : replyFor.getId());
+
+        if (replyFor.getDepth() < TweetUtil.MAX_THREAD_DEPTH) {
+            tweet.setPath(TweetUtil.descendantPathPrefix(replyFor));
+            tweet.setDepth(replyFor.getDepth() + 1);
+        } else {
+            tweet.setPath(replyFor.getPath());
+            tweet.setDepth(replyFor.getDepth());
+        }
 
         Tweet savedReply = tweetRepository.save(tweet);
-        replyFor.getReplyTweets().add(savedReply);
+        counterRepository.incrementReplyCount(replyFor.getId(), 1);
+        replyFor.setReplyCount(replyFor.getReplyCount() + 1);
+        TransactionUtil.runAfterCommit(() -> tweetSearchIndex.index(savedReply));
 
-        return tweetRepository.save(replyFor);
+        return savedReply;
     }
 
     /**
-     * Retrieves all tweets of a specific user.
+     * Retrieves a page of the tweets liked by a user, most recently liked first.
+     * <p>
+     * The page is read from the (user, like time) index of the likes, and only the tweets of that page
+     * are then loaded, with their authors.
      *
-     * @param user The user whose tweets are to be retrieved.
-     * @return List of tweets by the user.
+     * @param userId The ID of the user.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param size   The page size.
+     * @return The tweets of the requested page and the cursor of the next page.
+     * @throws TweetException If the cursor is invalid.
      */
     @Override
-    public List<Tweet> getUserTweets(User user) {
-        return tweetRepository
-                .findAllByRetweetUserContainsOrUser_IdAndIsTweetTrueOrderByCreatedAtDesc(user, user.getId());
-    }
+    public CursorPageDTO<Tweet> findLikedTweets(Long userId, String cursor, int size) throws TweetException {
+        Pageable limit = PaginationUtil.limit(size);
 
-    /**
-     * Retrieves all tweets liked by a specific user.
-     *
-     * @param user The user whose liked tweets are to be retrieved.
-     * @return List of tweets liked by the user.
-     */
-    @Override
-    public List<Tweet> findByLikesContainsUser(User user) {
-        return tweetRepository.findAllByLikesUser_Id(user.getId());
+        List<LikedTweetView> likes;
+        if (cursor == null) {
+            likes = likeRepository.findLikedTweets(userId, limit);
+        } else {
+            PageCursor pageCursor = PaginationUtil.decodeCursor(cursor, TweetException::new);
+            likes = likeRepository.findLikedTweetsBefore(userId,
+                    pageCursor.getCreatedAt(), pageCursor.getId(), limit);
+        }
+
+        List<Long> tweetIds = likes.stream().map(LikedTweetView::getTweetId).toList();
+        Map<Long, Tweet> tweets = tweetRepository.findAllWithUserByIdIn(tweetIds).stream()
+                .collect(Collectors.toMap(Tweet::getId, Function.identity()));
+
+        return CursorPageDTO.<Tweet>builder()
+                .items(tweetIds.stream().map(tweets::get).filter(Objects::nonNull).toList())
+                .nextCursor(PaginationUtil.nextCursor(likes, size,
+                        like -> new PageCursor(like.getCreatedAt(), like.getTweetId())))
+                .build();
     }
 
     /**
@@ -184,4 +473,28 @@ public class TweetServiceImpl implements TweetService {
     public Tweet saveExistTweet(Tweet tweet) {
         return tweetRepository.save(tweet);
     }
+
+    /**
+     * Retrieves which of the given tweets a user has liked and retweeted,
+     * using one query for likes and one for retweets, overlaid with the user's writes not flushed yet.
+     *
+     * @param tweets The tweets to check.
+     * @param user   The requesting user.
+     * @return The user's viewer state for the tweets.
+     */
+    @Override
+    public ViewerState getViewerState(List<Tweet> tweets, User user) {
+        Set<Long> tweetIds = tweets.stream().map(Tweet::getId).collect(Collectors.toSet());
+
+        if (tweetIds.isEmpty()) {
+            return ViewerState.empty();
+        }
+
+        Set<Long> likedTweetIds = new HashSet<>(likeRepository.findLikedTweetIds(user.getId(), tweetIds));
+        Set<Long> retweetedTweetIds = new HashSet<>(retweetRepository.findRetweetedTweetIds(user.getId(), tweetIds));
+        engagementQueue.overlay(Engagement.LIKE, user.getId(), tweetIds, likedTweetIds);
+        engagementQueue.overlay(Engagement.RETWEET, user.getId(), tweetIds, retweetedTweetIds);
+
+        return new ViewerState(likedTweetIds, retweetedTweetIds);
+    }
 }
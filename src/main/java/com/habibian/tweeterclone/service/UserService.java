@@ -1,6 +1,8 @@
 package com.habibian.tweeterclone.service;
 
+import com.habibian.tweeterclone.dto.CursorPageDTO;
 import com.habibian.tweeterclone.exception.UserException;
+import com.habibian.tweeterclone.model.Follow;
 import com.habibian.tweeterclone.model.User;
 
 import java.util.List;
@@ -20,13 +22,13 @@ public interface UserService {
     User findUserById(Long userId) throws UserException;
 
     /**
-     * Retrieves a user's profile based on their JWT token.
+     * Retrieves the authenticated user of a request, from a short-lived cache when possible.
      *
-     * @param jwt The JWT token associated with the user.
-     * @return The user profile based on the JWT token.
+     * @param userId The ID of the authenticated user.
+     * @return The authenticated user.
      * @throws UserException If the user is not found.
      */
-    User findUserProfileByJwt(String jwt) throws UserException;
+    User findAuthenticatedUser(Long userId) throws UserException;
 
     /**
      * Updates a user's information.
@@ -39,7 +41,7 @@ public interface UserService {
     User updateUser(Long userId, User req) throws UserException;
 
     /**
-     * Follows another user.
+     * Follows another user, or unfollows them if already followed.
      *
      * @param userId The ID of the user initiating the follow action.
      * @param user   The user to be followed.
@@ -49,10 +51,44 @@ public interface UserService {
     User followUser(Long userId, User user) throws UserException;
 
     /**
-     * Searches for users based on a query.
+     * Checks if a user follows another user.
      *
-     * @param query The search query.
-     * @return List of users matching the search query.
+     * @param followerId The ID of the following user.
+     * @param followeeId The ID of the followed user.
+     * @return true if the follow exists; otherwise, false.
      */
-    List<User> searchUser(String query);
+    boolean isFollowing(Long followerId, Long followeeId);
+
+    /**
+     * Searches for users whose full name or email terms start with the terms of a query, best match first.
+     *
+     * @param query  The search query.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param size   The page size.
+     * @return The users of the requested page and the cursor of the next page.
+     * @throws UserException If the cursor is invalid.
+     */
+    CursorPageDTO<User> searchUser(String query, String cursor, int size) throws UserException;
+
+    /**
+     * Retrieves a page of a user's followers, most recent follow first.
+     *
+     * @param userId The ID of the followed user.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param size   The page size.
+     * @return The follows of the requested page, with their followers.
+     * @throws UserException If the cursor is invalid.
+     */
+    List<Follow> findFollowers(Long userId, String cursor, int size) throws UserException;
+
+    /**
+     * Retrieves a page of the users a user is following, most recent follow first.
+     *
+     * @param userId The ID of the following user.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param size   The page size.
+     * @return The follows of the requested page, with their followed users.
+     * @throws UserException If the cursor is invalid.
+     */
+    List<Follow> findFollowings(Long userId, String cursor, int size) throws UserException;
 }
@@ -1,13 +1,32 @@
 package com.habibian.tweeterclone.service;
 
-import com.habibian.tweeterclone.config.JwtProvider;
+import com.habibian.tweeterclone.cache.EntityCacheEvictor;
+import com.habibian.tweeterclone.cache.TimelineCache;
+import com.habibian.tweeterclone.cache.UserCache;
+import com.habibian.tweeterclone.cache.UserSummaryCache;
+import com.habibian.tweeterclone.dto.CursorPageDTO;
 import com.habibian.tweeterclone.exception.UserException;
+import com.habibian.tweeterclone.model.Follow;
 import com.habibian.tweeterclone.model.User;
+import com.habibian.tweeterclone.repository.CounterRepository;
+import com.habibian.tweeterclone.repository.FollowRepository;
 import com.habibian.tweeterclone.repository.UserRepository;
+import com.habibian.tweeterclone.search.UserSearchCursor;
+import com.habibian.tweeterclone.search.UserSearchIndex;
+import com.habibian.tweeterclone.search.UserSearchResult;
+import com.habibian.tweeterclone.util.PageCursor;
+import com.habibian.tweeterclone.util.PaginationUtil;
+import com.habibian.tweeterclone.util.TransactionUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Implementation of the {@link UserService} interface that provides
@@ -18,7 +37,13 @@ import java.util.List;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
-    private final JwtProvider jwtProvider;
+    private final CounterRepository counterRepository;
+    private final FollowRepository followRepository;
+    private final UserCache userCache;
+    private final EntityCacheEvictor entityCacheEvictor;
+    private final UserSummaryCache userSummaryCache;
+    private final TimelineCache timelineCache;
+    private final UserSearchIndex userSearchIndex;
 
     /**
      * Retrieves a user by their ID.
@@ -35,19 +60,19 @@ public class UserServiceImpl implements UserService {
     }
 
     /**
-     * Retrieves a user's profile based on their JWT token.
+     * Retrieves the authenticated user of a request, from a short-lived cache when possible.
      *
-     * @param jwt The JWT token associated with the user.
-     * @return The user profile based on the JWT token.
+     * @param userId The ID of the authenticated user.
+     * @return The authenticated user.
      * @throws UserException If the user is not found.
      */
     @Override
-    public User findUserProfileByJwt(String jwt) throws UserException {
-        String email = jwtProvider.getEmailFromToken(jwt);
-        User user = userRepository.findByEmail(email);
+    public User findAuthenticatedUser(Long userId) throws UserException {
+        User user = userCache.get(userId);
 
         if (user == null) {
-            throw new UserException("user not found with email " + email);
+            user = findUserById(userId);
+            userCache.put(user);
         }
 
         return user;
@@ -87,11 +112,22 @@ public class UserServiceImpl implements UserService {
             user.setWebsite(req.getWebsite());
         }
 
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        userCache.evict(userId);
+        entityCacheEvictor.evict(User.class, userId); // The merged state may carry stale counters
+        userSummaryCache.evict(userId);
+        TransactionUtil.runAfterCommit(() -> userSearchIndex.index(savedUser));
+
+        return savedUser;
     }
 
     /**
-     * Follows another user.
+     * Follows another user, or unfollows them if already followed.
+     * <p>
+     * The toggle is a delete of the follow edge, falling back to an insert when nothing was deleted,
+     * plus one counter update on each user, so its cost does not depend on the size of either user's
+     * follow lists. The following user comes from {@link UserCache} and is shared by concurrent requests,
+     * so it is never modified: its cache entry is evicted and reloaded with the new counter.
      *
      * @param userId The ID of the user initiating the follow action.
      * @param user   The user to be followed.
@@ -99,31 +135,117 @@ public class UserServiceImpl implements UserService {
      * @throws UserException If the users are not valid.
      */
     @Override
+    @Transactional
     public User followUser(Long userId, User user) throws UserException {
         User followToUser = findUserById(userId);
 
-        if (user.getFollowings().contains(followToUser) && followToUser.getFollowers().contains(user)) { // Unfollow
-            user.getFollowings().remove(followToUser);
-            followToUser.getFollowers().remove(user);
+        if (followToUser.getId().equals(user.getId())) {
+            throw new UserException("You can't follow yourself");
+        }
+
+        int delta;
+        if (followRepository.deleteFollow(user.getId(), followToUser.getId()) > 0) { // Unfollow
+            delta = -1;
         } else { // Follow
-            user.getFollowings().add(followToUser);
-            followToUser.getFollowers().add(user);
+            delta = followRepository.insertFollow(user.getId(), followToUser.getId(), LocalDateTime.now());
         }
 
-        userRepository.save(followToUser);
-        userRepository.save(user);
+        if (delta != 0) {
+            counterRepository.incrementFollowersCount(followToUser.getId(), delta);
+            counterRepository.incrementFollowingsCount(user.getId(), delta);
+            followToUser.setFollowersCount(followToUser.getFollowersCount() + delta);
+            userCache.evict(followToUser.getId());
+            userCache.evict(user.getId());
+            timelineCache.invalidateHome(user.getId());
+        }
 
         return followToUser;
     }
 
     /**
-     * Searches for users based on a query.
+     * Checks if a user follows another user.
+     *
+     * @param followerId The ID of the following user.
+     * @param followeeId The ID of the followed user.
+     * @return true if the follow exists; otherwise, false.
+     */
+    @Override
+    public boolean isFollowing(Long followerId, Long followeeId) {
+        return followRepository.existsByFollower_IdAndFollowee_Id(followerId, followeeId);
+    }
+
+    /**
+     * Searches for users whose full name or email terms start with the terms of a query, best match first.
+     * <p>
+     * Matches are ranked by the in-memory {@link UserSearchIndex}; only the users of the page are read
+     * from the database. The cursor holds the full sort key of the last user of the page, so the next page
+     * resumes after it even if that user changed or was removed in the meantime.
+     *
+     * @param query  The search query.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param size   The page size.
+     * @return The users of the requested page and the cursor of the next page.
+     * @throws UserException If the cursor is invalid.
+     */
+    @Override
+    public CursorPageDTO<User> searchUser(String query, String cursor, int size) throws UserException {
+        UserSearchCursor after;
+        try {
+            after = cursor == null ? null : UserSearchCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new UserException("Invalid cursor " + cursor);
+        }
+
+        UserSearchResult result = userSearchIndex.search(query, after, size);
+
+        Map<Long, User> usersById = userRepository.findAllById(result.userIds()).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        return CursorPageDTO.<User>builder()
+                .items(result.userIds().stream().map(usersById::get).filter(Objects::nonNull).toList())
+                .nextCursor(result.last() == null ? null : result.last().encode())
+                .build();
+    }
+
+    /**
+     * Retrieves a page of a user's followers, most recent follow first.
+     *
+     * @param userId The ID of the followed user.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param size   The page size.
+     * @return The follows of the requested page, with their followers.
+     * @throws UserException If the cursor is invalid.
+     */
+    @Override
+    public List<Follow> findFollowers(Long userId, String cursor, int size) throws UserException {
+        if (cursor == null) {
+            return followRepository.findFollowers(userId, PaginationUtil.limit(size));
+        }
+
+        PageCursor pageCursor = PaginationUtil.decodeCursor(cursor, UserException::new);
+
+        return followRepository.findFollowersBefore(userId, pageCursor.getCreatedAt(), pageCursor.getId(),
+                PaginationUtil.limit(size));
+    }
+
+    /**
+     * Retrieves a page of the users a user is following, most recent follow first.
      *
-     * @param query The search query.
-     * @return List of users matching the search query.
+     * @param userId The ID of the following user.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param size   The page size.
+     * @return The follows of the requested page, with their followed users.
+     * @throws UserException If the cursor is invalid.
      */
     @Override
-    public List<User> searchUser(String query) {
-        return userRepository.searchUser(query);
+    public List<Follow> findFollowings(Long userId, String cursor, int size) throws UserException {
+        if (cursor == null) {
+            return followRepository.findFollowings(userId, PaginationUtil.limit(size));
+        }
+
+        PageCursor pageCursor = PaginationUtil.decodeCursor(cursor, UserException::new);
+
+        return followRepository.findFollowingsBefore(userId, pageCursor.getCreatedAt(), pageCursor.getId(),
+                PaginationUtil.limit(size));
     }
 }
@@ -0,0 +1,75 @@
+package com.habibian.tweeterclone.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position used by cursor-paginated endpoints.
+ * <p>
+ * A cursor points at the last row of a page by its sort key ({@code createdAt}) and its id as a
+ * tie-breaker, and is handed to clients as an opaque URL-safe string. Lists sorted by id alone use
+ * cursors without a timestamp.
+ */
+@Getter
+@AllArgsConstructor
+public class PageCursor {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * The sort timestamp of the last row of the page, or null if the list is sorted by id alone.
+     */
+    private final LocalDateTime createdAt;
+
+    /**
+     * The id of the last row of the page.
+     */
+    private final Long id;
+
+    /**
+     * Encodes this cursor into an opaque string.
+     *
+     * @return The encoded cursor.
+     */
+    public String encode() {
+        String raw = (createdAt == null ? "" : createdAt.toString()) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Creates a cursor for a list sorted by id alone.
+     *
+     * @param id The id of the last row of the page.
+     * @return The cursor.
+     */
+    public static PageCursor ofId(Long id) {
+        return new PageCursor(null, id);
+    }
+
+    /**
+     * Decodes a cursor previously produced by {@link #encode()}.
+     *
+     * @param cursor The encoded cursor.
+     * @return The decoded cursor.
+     * @throws IllegalArgumentException If the cursor is malformed.
+     */
+    public static PageCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            String createdAt = raw.substring(0, separator);
+
+            return new PageCursor(
+                    createdAt.isEmpty() ? null : LocalDateTime.parse(createdAt),
+                    Long.valueOf(raw.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.habibian.tweeterclone.util;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Utility class for cursor-based pagination.
+ */
+public class PaginationUtil {
+
+    /**
+     * The page size used when the client does not ask for one.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    /**
+     * The largest page size a client may ask for.
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * Bounds a requested page size to {@code [1, MAX_PAGE_SIZE]}.
+     *
+     * @param size The requested page size, or null for the default.
+     * @return The page size to use.
+     */
+    public static int clampPageSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Creates a limit-only pageable for keyset queries.
+     *
+     * @param size The page size.
+     * @return A pageable fetching the first {@code size} rows.
+     */
+    public static Pageable limit(int size) {
+        return PageRequest.of(0, size);
+    }
+
+    /**
+     * Computes the cursor of the page following the given items.
+     *
+     * @param items    The items of the current page.
+     * @param size     The requested page size.
+     * @param cursorOf Function building the cursor of an item.
+     * @param <T>      The item type.
+     * @return The encoded next cursor, or null if this was the last page.
+     */
+    public static <T> String nextCursor(List<T> items, int size, Function<T, PageCursor> cursorOf) {
+        if (items.size() < size) {
+            return null;
+        }
+
+        return cursorOf.apply(items.get(items.size() - 1)).encode();
+    }
+
+    /**
+     * Decodes a client-supplied page cursor.
+     *
+     * @param cursor    The encoded cursor.
+     * @param onInvalid Function building the exception thrown for an invalid cursor from its message.
+     * @param <E>       The exception type.
+     * @return The decoded cursor.
+     * @throws E If the cursor is invalid.
+     */
+    public static <E extends Exception> PageCursor decodeCursor(String cursor, Function<String, E> onInvalid)
+            throws E {
+        try {
+            return PageCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw onInvalid.apply("Invalid cursor " + cursor);
+        }
+    }
+}
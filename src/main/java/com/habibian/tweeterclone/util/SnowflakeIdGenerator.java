@@ -0,0 +1,112 @@
+package com.habibian.tweeterclone.util;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free generator of time-ordered 64-bit ids.
+ * <p>
+ * An id is made of, from the most significant bit: a zero sign bit, 41 bits of milliseconds since
+ * {@link #EPOCH}, 10 bits of node id and 12 bits of sequence within the millisecond. Ids of one node
+ * strictly increase, and ids of all nodes sort by their creation millisecond, as long as every running
+ * instance has its own node id.
+ * <p>
+ * A node issues at most 4096 ids per millisecond and waits for the next millisecond once they are used
+ * up. If the clock moves backwards by up to the configured maximum skew, ids keep being issued from the
+ * last millisecond seen; if it moves back further, generation fails instead of risking duplicate ids.
+ */
+public class SnowflakeIdGenerator {
+
+    /**
+     * The start of the id timestamps, 2024-01-01T00:00:00Z.
+     */
+    public static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+
+    /**
+     * The largest node id.
+     */
+    public static final long MAX_NODE_ID = (1L << 10) - 1;
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final int NODE_ID_BITS = 10;
+    private static final int TIMESTAMP_SHIFT = SEQUENCE_BITS + NODE_ID_BITS;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeId;
+    private final long maxClockSkewMillis;
+    private final LongSupplier currentTimeMillis;
+
+    /**
+     * The last millisecond since the epoch an id was issued in, and the last sequence used in it,
+     * packed as {@code millis << SEQUENCE_BITS | sequence}.
+     */
+    private final AtomicLong state = new AtomicLong();
+
+    /**
+     * Creates a generator reading the system clock.
+     *
+     * @param nodeId             The node id of this instance, between 0 and {@link #MAX_NODE_ID}.
+     * @param maxClockSkewMillis How far back the clock may move before generation fails.
+     */
+    public SnowflakeIdGenerator(long nodeId, long maxClockSkewMillis) {
+        this(nodeId, maxClockSkewMillis, System::currentTimeMillis);
+    }
+
+    /**
+     * Creates a generator reading the given clock.
+     *
+     * @param nodeId             The node id of this instance, between 0 and {@link #MAX_NODE_ID}.
+     * @param maxClockSkewMillis How far back the clock may move before generation fails.
+     * @param currentTimeMillis  The clock, in milliseconds since the Unix epoch.
+     */
+    public SnowflakeIdGenerator(long nodeId, long maxClockSkewMillis, LongSupplier currentTimeMillis) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ", was " + nodeId);
+        }
+
+        this.nodeId = nodeId;
+        this.maxClockSkewMillis = maxClockSkewMillis;
+        this.currentTimeMillis = currentTimeMillis;
+    }
+
+    /**
+     * Issues a new id.
+     *
+     * @return The id.
+     * @throws IllegalStateException If the clock moved backwards by more than the maximum skew.
+     */
+    public long nextId() {
+        while (true) {
+            long last = state.get();
+            long lastMillis = last >>> SEQUENCE_BITS;
+            long now = currentTimeMillis.getAsLong() - EPOCH.toEpochMilli();
+
+            long next;
+            if (now > lastMillis) {
+                next = now << SEQUENCE_BITS;
+            } else if (lastMillis - now > maxClockSkewMillis) {
+                throw new IllegalStateException("Clock moved backwards by " + (lastMillis - now) + " ms");
+            } else if ((last & SEQUENCE_MASK) < SEQUENCE_MASK) { // Same millisecond, or clock slightly behind
+                next = last + 1;
+            } else { // Sequence of this millisecond used up
+                Thread.onSpinWait();
+                continue;
+            }
+
+            if (state.compareAndSet(last, next)) {
+                return (next >>> SEQUENCE_BITS) << TIMESTAMP_SHIFT | nodeId << SEQUENCE_BITS | next & SEQUENCE_MASK;
+            }
+        }
+    }
+
+    /**
+     * Extracts the creation time of an id.
+     *
+     * @param id The id.
+     * @return The millisecond the id was issued in.
+     */
+    public static Instant timestampOf(long id) {
+        return EPOCH.plusMillis(id >>> TIMESTAMP_SHIFT);
+    }
+}
@@ -0,0 +1,48 @@
+package com.habibian.tweeterclone.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Utility class for running actions around the current transaction.
+ */
+public class TransactionUtil {
+
+    /**
+     * Runs an action right away and, within a transaction, once more after commit.
+     *
+     * @param action The action to run.
+     */
+    public static void runNowAndAfterCommit(Runnable action) {
+        action.run();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    /**
+     * Runs an action after the current transaction commits, or right away outside a transaction.
+     * The action is not run if the transaction rolls back.
+     *
+     * @param action The action to run.
+     */
+    public static void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
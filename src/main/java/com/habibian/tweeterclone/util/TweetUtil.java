@@ -1,8 +1,13 @@
 package com.habibian.tweeterclone.util;
 
-import com.habibian.tweeterclone.model.Like;
 import com.habibian.tweeterclone.model.Tweet;
-import com.habibian.tweeterclone.model.User;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Utility class for common operations related to tweets.
@@ -10,36 +15,114 @@ import com.habibian.tweeterclone.model.User;
 public class TweetUtil {
 
     /**
-     * Checks if a tweet is liked by the requesting user.
+     * The number of replies embedded in a single tweet response.
+     */
+    public static final int REPLY_PREVIEW_SIZE = 3;
+
+    /**
+     * The length of one tweet ID in a materialized path: a Long in base 36, zero-padded.
+     */
+    public static final int PATH_SEGMENT_LENGTH = 13;
+
+    /**
+     * The deepest level of a conversation whose path is materialized. Replies below it are stored at
+     * this depth with their parent's path, so their place in the thread is only known from
+     * {@link Tweet#getReplyFor()}.
+     */
+    public static final int MAX_THREAD_DEPTH = 50;
+
+    /**
+     * The largest number of replies loaded into a single thread view.
+     */
+    public static final int MAX_THREAD_REPLIES = 500;
+
+    /**
+     * Lists a tweet followed by its reply preview, i.e. every tweet rendered in a single tweet response.
+     *
+     * @param tweet        The tweet.
+     * @param replyPreview The first replies to the tweet.
+     * @return The tweet and its replies.
+     */
+    public static List<Tweet> withReplies(Tweet tweet, List<Tweet> replyPreview) {
+        List<Tweet> tweets = new ArrayList<>();
+        tweets.add(tweet);
+        tweets.addAll(replyPreview);
+
+        return tweets;
+    }
+
+    /**
+     * Encodes a tweet ID as a path segment. Segments have a fixed width, so paths sort like their IDs.
      *
-     * @param reqUser The user making the request.
-     * @param tweet   The tweet to check for likes.
-     * @return True if the tweet is liked by the requesting user, false otherwise.
-     */
-    public static boolean isLikedByReqUser(User reqUser, Tweet tweet) {
-        for (Like like : tweet.getLikes()) {
-            if (like.getUser().getId().equals(reqUser.getId())) {
-                return true;
-            }
+     * @param tweetId The tweet ID.
+     * @return The ID in base 36, left-padded with zeros to {@link #PATH_SEGMENT_LENGTH} characters.
+     */
+    public static String pathSegment(Long tweetId) {
+        String segment = Long.toString(tweetId, 36);
+
+        return "0".repeat(PATH_SEGMENT_LENGTH - segment.length()) + segment;
+    }
+
+    /**
+     * Decodes the tweet IDs of a materialized path.
+     *
+     * @param path The path.
+     * @return The IDs of the path, root first.
+     */
+    public static List<Long> ancestorIds(String path) {
+        List<Long> ids = new ArrayList<>();
+
+        for (int i = 0; i + PATH_SEGMENT_LENGTH <= path.length(); i += PATH_SEGMENT_LENGTH) {
+            ids.add(Long.parseLong(path.substring(i, i + PATH_SEGMENT_LENGTH), 36));
         }
 
-        return false;
+        return ids;
     }
 
     /**
-     * Checks if a tweet is retweeted by the requesting user.
+     * Builds the common prefix of the paths of a tweet's descendants: the path of the tweet followed by its ID.
      *
-     * @param reqUser The user making the request.
-     * @param tweet   The tweet to check for retweets.
-     * @return True if the tweet is retweeted by the requesting user, false otherwise.
-     */
-    public static boolean isRetweetedByReqUser(User reqUser, Tweet tweet) {
-        for (User user : tweet.getRetweetUser()) {
-            if (user.getId().equals(reqUser.getId())) {
-                return true;
-            }
+     * @param tweet The tweet.
+     * @return The path prefix of the tweet's descendants.
+     */
+    public static String descendantPathPrefix(Tweet tweet) {
+        return tweet.getPath() + pathSegment(tweet.getId());
+    }
+
+    /**
+     * Orders the loaded descendants of a tweet depth first: each reply comes right after its parent and
+     * before its parent's later replies, and replies to the same parent are ordered by ID, i.e. by creation
+     * time. The tree is rebuilt from the parent of each reply rather than from the paths, which are shared
+     * by the replies below {@link #MAX_THREAD_DEPTH}.
+     *
+     * @param tweet       The tweet.
+     * @param descendants The descendants of the tweet, each after its parent and after its lower-ID siblings.
+     * @return The descendants in thread order.
+     */
+    public static List<Tweet> threadOrder(Tweet tweet, List<Tweet> descendants) {
+        Map<Long, List<Tweet>> repliesByParentId = new HashMap<>();
+        for (Tweet descendant : descendants) {
+            repliesByParentId.computeIfAbsent(descendant.getReplyFor().getId(), id -> new ArrayList<>())
+                    .add(descendant);
         }
 
-        return false;
+        List<Tweet> ordered = new ArrayList<>(descendants.size());
+        Deque<Tweet> stack = new ArrayDeque<>();
+        pushReplies(stack, repliesByParentId, tweet.getId());
+
+        while (!stack.isEmpty()) {
+            Tweet reply = stack.pop();
+            ordered.add(reply);
+            pushReplies(stack, repliesByParentId, reply.getId());
+        }
+
+        return ordered;
+    }
+
+    private static void pushReplies(Deque<Tweet> stack, Map<Long, List<Tweet>> repliesByParentId, Long parentId) {
+        List<Tweet> replies = repliesByParentId.getOrDefault(parentId, List.of());
+        for (int i = replies.size() - 1; i >= 0; i--) {
+            stack.push(replies.get(i));
+        }
     }
 }
@@ -0,0 +1,21 @@
+-- Fills the conversation_id, path and depth columns of existing tweets from their reply_for_id chains.
+-- Run once after deploying the conversation columns. Paths are the ancestors' IDs, root first, each in
+-- base 36 zero-padded to 13 characters, matching TweetUtil.pathSegment. Replies deeper than 50 levels
+-- keep the path and depth of their 50th-level ancestor.
+WITH RECURSIVE thread (id, conversation_id, path, depth) AS (
+    SELECT t.id, CAST(NULL AS UNSIGNED), CAST('' AS CHAR(650)), 0
+    FROM tweets t
+    WHERE t.reply_for_id IS NULL
+    UNION ALL
+    SELECT t.id,
+           COALESCE(th.conversation_id, th.id),
+           IF(th.depth < 50, CONCAT(th.path, LPAD(LOWER(CONV(th.id, 10, 36)), 13, '0')), th.path),
+           LEAST(th.depth + 1, 50)
+    FROM tweets t
+    JOIN thread th ON t.reply_for_id = th.id
+)
+UPDATE tweets t
+JOIN thread th ON th.id = t.id
+SET t.conversation_id = th.conversation_id,
+    t.path            = th.path,
+    t.depth           = th.depth;
@@ -0,0 +1,17 @@
+-- Copies follow relations from the users_followers / users_followings join tables,
+-- which were replaced by the follows table, then drops them.
+-- Run once after deploying the Follow entity. Follow times of copied rows are unknown
+-- and set to the time of the copy.
+INSERT IGNORE INTO follows (follower_id, followee_id, created_at)
+SELECT f.followers_id, f.user_id, NOW() FROM users_followers f;
+
+INSERT IGNORE INTO follows (follower_id, followee_id, created_at)
+SELECT f.user_id, f.followings_id, NOW() FROM users_followings f;
+
+DROP TABLE users_followers;
+DROP TABLE users_followings;
+
+-- Recompute the follower and following counters from the copied rows.
+UPDATE users u
+SET u.followers_count  = (SELECT COUNT(*) FROM follows f WHERE f.followee_id = u.id),
+    u.followings_count = (SELECT COUNT(*) FROM follows f WHERE f.follower_id = u.id);
@@ -0,0 +1,7 @@
+-- Adds the like time to the likes table.
+-- Run once before deploying Like.createdAt. Like times of existing rows are unknown and set to
+-- the time of the migration.
+ALTER TABLE likes ADD COLUMN created_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6);
+ALTER TABLE likes ALTER COLUMN created_at DROP DEFAULT;
+
+CREATE INDEX idx_likes_user_created_at ON likes (user_id, created_at, tweet_id);
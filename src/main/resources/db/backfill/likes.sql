@@ -0,0 +1,15 @@
+-- Removes duplicate likes of the same user on the same tweet, keeping the oldest one,
+-- so that the uk_likes_user_tweet unique key can be created.
+-- Run once before deploying the unique (user_id, tweet_id) constraint on likes.
+DELETE l FROM likes l
+JOIN likes k ON k.user_id = l.user_id AND k.tweet_id = l.tweet_id AND k.id < l.id;
+
+DELETE FROM likes WHERE user_id IS NULL OR tweet_id IS NULL;
+
+-- Recompute the like counters from the remaining rows.
+UPDATE tweets t
+SET t.like_count = (SELECT COUNT(*) FROM likes l WHERE l.tweet_id = t.id);
+
+-- Like IDs now come from the database instead of the likes_seq table.
+ALTER TABLE likes MODIFY id BIGINT NOT NULL AUTO_INCREMENT;
+DROP TABLE IF EXISTS likes_seq;
@@ -0,0 +1,15 @@
+-- Links replies recorded only in the tweets_reply_tweets join table, which was replaced by the
+-- reply_for_id column, then drops the join table.
+-- Run once after deploying the change, before db/backfill/conversations.sql if that one is still pending.
+UPDATE tweets r
+JOIN tweets_reply_tweets j ON j.reply_tweets_id = r.id
+SET r.reply_for_id = j.tweet_id
+WHERE r.reply_for_id IS NULL;
+
+DROP TABLE tweets_reply_tweets;
+
+-- Recompute the reply counters from reply_for_id.
+UPDATE tweets t
+LEFT JOIN (SELECT reply_for_id, COUNT(*) AS n FROM tweets WHERE reply_for_id IS NOT NULL GROUP BY reply_for_id) c
+    ON c.reply_for_id = t.id
+SET t.reply_count = COALESCE(c.n, 0);
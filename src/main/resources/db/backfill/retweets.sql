@@ -0,0 +1,13 @@
+-- Copies retweets from the tweets_retweet_user join table, which was replaced by the retweets table,
+-- then drops it.
+-- Run once after deploying the Retweet entity. Retweet times of copied rows are unknown and set to
+-- the time of the copy.
+INSERT IGNORE INTO retweets (user_id, tweet_id, created_at)
+SELECT r.retweet_user_id, r.tweet_id, NOW() FROM tweets_retweet_user r;
+
+DROP TABLE tweets_retweet_user;
+
+-- Recompute the retweet counters from the copied rows.
+UPDATE tweets t
+LEFT JOIN (SELECT tweet_id, COUNT(*) AS n FROM retweets GROUP BY tweet_id) c ON c.tweet_id = t.id
+SET t.retweet_count = COALESCE(c.n, 0);
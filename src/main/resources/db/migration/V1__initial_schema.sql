@@ -0,0 +1,118 @@
+-- Initial schema: every table with its primary key, unique keys, composite indexes and foreign keys.
+-- Databases created earlier by ddl-auto=update are baselined at this version instead of migrated
+-- (spring.flyway.baseline-on-migrate); the index check at startup reports any index they lack.
+CREATE TABLE users
+(
+    id               BIGINT       NOT NULL,
+    fullname         VARCHAR(255),
+    location         VARCHAR(255),
+    website          VARCHAR(255),
+    birth_date       VARCHAR(255),
+    email            VARCHAR(255),
+    password         VARCHAR(255),
+    mobile           VARCHAR(255),
+    image            VARCHAR(255),
+    background_image VARCHAR(255),
+    bio              VARCHAR(255),
+    req_user         BIT          NOT NULL,
+    login_with_google BIT         NOT NULL,
+    followers_count  INTEGER      NOT NULL,
+    followings_count INTEGER      NOT NULL,
+    plan_type        VARCHAR(255),
+    started_at       DATETIME(6),
+    ends_at          DATETIME(6),
+    status           BIT,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+-- Ids of users are allocated from this table in pooled blocks of 50.
+CREATE TABLE user_seq
+(
+    next_val BIGINT
+);
+
+INSERT INTO user_seq VALUES (1);
+
+CREATE TABLE tweets
+(
+    id              BIGINT       NOT NULL,
+    content         VARCHAR(255),
+    image           VARCHAR(255),
+    video           VARCHAR(255),
+    user_id         BIGINT,
+    reply_for_id    BIGINT,
+    conversation_id BIGINT,
+    path            VARCHAR(650) NOT NULL,
+    depth           INTEGER      NOT NULL,
+    is_reply        BIT,
+    is_tweet        BIT,
+    created_at      DATETIME(6),
+    like_count      INTEGER      NOT NULL,
+    reply_count     INTEGER      NOT NULL,
+    retweet_count   INTEGER      NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_tweets_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_tweets_reply_for FOREIGN KEY (reply_for_id) REFERENCES tweets (id)
+);
+
+CREATE INDEX idx_tweets_is_tweet_id ON tweets (is_tweet, id);
+CREATE INDEX idx_tweets_user_created_at ON tweets (user_id, created_at, id);
+CREATE INDEX idx_tweets_reply_for_id ON tweets (reply_for_id, id);
+CREATE INDEX idx_tweets_conversation_path ON tweets (conversation_id, path);
+
+CREATE TABLE likes
+(
+    id         BIGINT      NOT NULL AUTO_INCREMENT,
+    user_id    BIGINT      NOT NULL,
+    tweet_id   BIGINT      NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_likes_user_tweet UNIQUE (user_id, tweet_id),
+    CONSTRAINT fk_likes_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_likes_tweet FOREIGN KEY (tweet_id) REFERENCES tweets (id)
+);
+
+CREATE INDEX idx_likes_user_created_at ON likes (user_id, created_at, tweet_id);
+CREATE INDEX idx_likes_tweet_created_at ON likes (tweet_id, created_at, user_id);
+
+CREATE TABLE retweets
+(
+    id         BIGINT      NOT NULL AUTO_INCREMENT,
+    user_id    BIGINT      NOT NULL,
+    tweet_id   BIGINT      NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_retweets_user_tweet UNIQUE (user_id, tweet_id),
+    CONSTRAINT fk_retweets_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_retweets_tweet FOREIGN KEY (tweet_id) REFERENCES tweets (id)
+);
+
+CREATE INDEX idx_retweets_user_created_at ON retweets (user_id, created_at, tweet_id);
+CREATE INDEX idx_retweets_tweet_created_at ON retweets (tweet_id, created_at, id);
+
+CREATE TABLE follows
+(
+    id          BIGINT      NOT NULL AUTO_INCREMENT,
+    follower_id BIGINT      NOT NULL,
+    followee_id BIGINT      NOT NULL,
+    created_at  DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_follows_follower_followee UNIQUE (follower_id, followee_id),
+    CONSTRAINT fk_follows_follower FOREIGN KEY (follower_id) REFERENCES users (id),
+    CONSTRAINT fk_follows_followee FOREIGN KEY (followee_id) REFERENCES users (id)
+);
+
+CREATE INDEX idx_follows_follower_created_at ON follows (follower_id, created_at, id);
+CREATE INDEX idx_follows_followee_created_at ON follows (followee_id, created_at, id);
+
+CREATE TABLE home_timeline
+(
+    owner_id   BIGINT      NOT NULL,
+    tweet_id   BIGINT      NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (owner_id, tweet_id)
+);
+
+CREATE INDEX idx_home_timeline_owner_created_at ON home_timeline (owner_id, created_at, tweet_id);
+CREATE INDEX idx_home_timeline_tweet ON home_timeline (tweet_id);
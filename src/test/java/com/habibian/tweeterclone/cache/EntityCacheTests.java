@@ -0,0 +1,172 @@
+package com.habibian.tweeterclone.cache;
+
+import com.habibian.tweeterclone.config.EntityCacheConfig;
+import com.habibian.tweeterclone.config.SharedCacheConfig;
+import com.habibian.tweeterclone.exception.TweetException;
+import com.habibian.tweeterclone.exception.UserException;
+import com.habibian.tweeterclone.model.Tweet;
+import com.habibian.tweeterclone.model.User;
+import com.habibian.tweeterclone.repository.CounterRepository;
+import com.habibian.tweeterclone.repository.LikeRepository;
+import com.habibian.tweeterclone.repository.TweetRepository;
+import com.habibian.tweeterclone.repository.UserRepository;
+import com.habibian.tweeterclone.search.TweetSearchIndex;
+import com.habibian.tweeterclone.search.UserSearchIndex;
+import com.habibian.tweeterclone.service.EngagementWriteBehindQueue;
+import com.habibian.tweeterclone.service.TimelineService;
+import com.habibian.tweeterclone.service.TweetService;
+import com.habibian.tweeterclone.service.TweetServiceImpl;
+import com.habibian.tweeterclone.service.UserService;
+import com.habibian.tweeterclone.service.UserServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:entity-cache;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({EntityCacheConfig.class, SharedCacheConfig.class, EntityCacheEvictor.class, TweetCounterCache.class,
+        CounterRepository.class, UserServiceImpl.class, TweetServiceImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EntityCacheTests {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TweetRepository tweetRepository;
+
+    @Autowired
+    private LikeRepository likeRepository;
+
+    @Autowired
+    private CounterRepository counterRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TweetService tweetService;
+
+    @MockBean
+    private UserCache userCache;
+
+    @MockBean
+    private UserSummaryCache userSummaryCache;
+
+    @MockBean
+    private TimelineCache timelineCache;
+
+    @MockBean
+    private TimelineService timelineService;
+
+    @MockBean
+    private EngagementWriteBehindQueue engagementQueue;
+
+    @MockBean
+    private UserSearchIndex userSearchIndex;
+
+    @MockBean
+    private TweetSearchIndex tweetSearchIndex;
+
+    @Test
+    void counterUpdateEvictsOnlyTheUpdatedTweet() {
+        User author = new User();
+        author.setFullname("author");
+        author.setEmail("author@example.com");
+        author = userRepository.save(author);
+
+        Tweet liked = tweetRepository.save(newTweet(author));
+        Tweet other = tweetRepository.save(newTweet(author));
+        tweetRepository.findById(liked.getId());
+        tweetRepository.findById(other.getId());
+
+        likeRepository.insertLike(author.getId(), liked.getId(), LocalDateTime.now());
+
+        assertThat(isCached(liked)).isTrue();
+        assertThat(isCached(other)).isTrue();
+
+        counterRepository.incrementLikeCount(liked.getId(), 1);
+
+        assertThat(isCached(liked)).isFalse();
+        assertThat(isCached(other)).isTrue();
+        assertThat(tweetRepository.findById(liked.getId()).orElseThrow().getLikeCount()).isEqualTo(1);
+    }
+
+    @Test
+    void profileUpdateReplacesTheCachedUser() throws UserException {
+        User user = new User();
+        user.setFullname("before");
+        user.setEmail("profile@example.com");
+        user = userRepository.save(user);
+        userRepository.findById(user.getId());
+
+        User req = new User();
+        req.setFullname("after");
+        userService.updateUser(user.getId(), req);
+
+        assertThat(entityManagerFactory.getCache().contains(User.class, user.getId())).isFalse();
+        assertThat(userRepository.findById(user.getId()).orElseThrow().getFullname()).isEqualTo("after");
+    }
+
+    @Test
+    void deletingAReplyEvictsItAndItsParent() throws UserException, TweetException {
+        User author = new User();
+        author.setFullname("replier");
+        author.setEmail("replier@example.com");
+        author = userRepository.save(author);
+
+        Tweet parent = tweetRepository.save(newTweet(author));
+        Tweet reply = newTweet(author);
+        reply.setReplyFor(parent);
+        reply = tweetRepository.save(reply);
+        counterRepository.incrementReplyCount(parent.getId(), 1);
+        tweetRepository.findById(parent.getId());
+        tweetRepository.findById(reply.getId());
+
+        assertThat(isCached(parent)).isTrue();
+        assertThat(isCached(reply)).isTrue();
+
+        tweetService.deleteByTweetId(reply.getId(), author.getId());
+
+        // A removed entity leaves a lock entry in its READ_WRITE region, so it is checked by reading it instead
+        assertThat(tweetRepository.findById(reply.getId())).isEmpty();
+        assertThat(isCached(parent)).isFalse();
+        assertThat(tweetRepository.findById(parent.getId()).orElseThrow().getReplyCount()).isZero();
+    }
+
+    private Tweet newTweet(User author) {
+        Tweet tweet = new Tweet();
+        tweet.setContent("tweet by " + author.getFullname());
+        tweet.setUser(author);
+        tweet.setIsTweet(true);
+        tweet.setIsReply(false);
+        tweet.setCreatedAt(LocalDateTime.now());
+
+        return tweet;
+    }
+
+    private boolean isCached(Tweet tweet) {
+        return entityManagerFactory.getCache().contains(Tweet.class, tweet.getId());
+    }
+}
@@ -0,0 +1,93 @@
+package com.habibian.tweeterclone.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.habibian.tweeterclone.dto.CursorPageDTO;
+import com.habibian.tweeterclone.dto.TweetDTO;
+import com.habibian.tweeterclone.dto.UserDTO;
+import com.habibian.tweeterclone.repository.TweetRepository;
+import com.habibian.tweeterclone.repository.UserRepository;
+import com.habibian.tweeterclone.repository.projection.TweetCountersView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TimelineCacheTests {
+
+    private static final Long OWNER_ID = 1L;
+    private static final Long TWEET_ID = 10L;
+
+    private final TweetRepository tweetRepository = mock(TweetRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final AtomicInteger renders = new AtomicInteger();
+
+    private TweetCounterCache tweetCounterCache;
+    private TimelineCache timelineCache;
+
+    @BeforeEach
+    void setUp() {
+        SharedCache sharedCache = new InMemorySharedCache(1000);
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+        tweetCounterCache = new TweetCounterCache(sharedCache, tweetRepository);
+        ReflectionTestUtils.setField(tweetCounterCache, "ttl", Duration.ofMinutes(5));
+
+        UserSummaryCache userSummaryCache = new UserSummaryCache(sharedCache, userRepository, objectMapper);
+        ReflectionTestUtils.setField(userSummaryCache, "ttl", Duration.ofMinutes(5));
+
+        timelineCache = new TimelineCache(sharedCache, tweetCounterCache, userSummaryCache, objectMapper);
+        ReflectionTestUtils.setField(timelineCache, "ttl", Duration.ofSeconds(30));
+
+        when(userRepository.findSummariesByIdIn(any())).thenReturn(List.of());
+        countersAre(0);
+    }
+
+    @Test
+    void pageIsRenderedOnceUntilInvalidatedAndAlwaysCarriesSharedCounters() {
+        assertThat(getPage().getItems().get(0).getTotalLikes()).isZero();
+        assertThat(getPage().getItems().get(0).getContent()).isEqualTo("hello");
+        assertThat(renders).hasValue(1);
+
+        countersAre(1);
+        tweetCounterCache.evict(TWEET_ID);
+
+        assertThat(getPage().getItems().get(0).getTotalLikes()).isEqualTo(1);
+        assertThat(renders).hasValue(1);
+
+        timelineCache.invalidateHome(OWNER_ID);
+
+        getPage();
+        assertThat(renders).hasValue(2);
+    }
+
+    private CursorPageDTO<TweetDTO> getPage() {
+        return timelineCache.getHomePage(OWNER_ID, null, 20, () -> {
+            renders.incrementAndGet();
+
+            TweetDTO tweet = TweetDTO.builder()
+                    .id(TWEET_ID)
+                    .content("hello")
+                    .createdAt(LocalDateTime.now())
+                    .user(UserDTO.builder().id(2L).fullname("author").build())
+                    .build();
+
+            return CursorPageDTO.<TweetDTO>builder().items(List.of(tweet)).build();
+        });
+    }
+
+    private void countersAre(int likeCount) {
+        TweetCountersView counters = mock(TweetCountersView.class);
+        when(counters.getId()).thenReturn(TWEET_ID);
+        when(counters.getLikeCount()).thenReturn(likeCount);
+        when(tweetRepository.findCountersByIdIn(any())).thenReturn(List.of(counters));
+    }
+}
@@ -0,0 +1,83 @@
+package com.habibian.tweeterclone.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.crypto.SecretKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the per-request overhead of JWT validation.
+ * <p>
+ * {@code rebuildKeyAndParser} reproduces the former filter, which built the signing key and a parser and
+ * verified the token on every request; {@code filter} runs the current {@link JwtTokenValidator}, which
+ * verifies a token once and then serves it from the verified-token cache.
+ * <p>
+ * Run {@link #main(String[])} from the test classpath after {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenValidatorBenchmark {
+
+    private String jwt;
+    private JwtTokenValidator validator;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        JwtProvider jwtProvider = new JwtProvider(10_000);
+        Authentication auth = new UsernamePasswordAuthenticationToken("user@example.com", null);
+
+        jwt = jwtProvider.generateToken(auth, 1L);
+        validator = new JwtTokenValidator(jwtProvider);
+        request = new MockHttpServletRequest();
+        request.addHeader(JwtConstant.JWT_HEADER, "Bearer " + jwt);
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public Authentication rebuildKeyAndParser() {
+        SecretKey key = Keys.hmacShaKeyFor(JwtConstant.SECRET_KEY.getBytes());
+        Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(jwt).getBody();
+
+        String email = String.valueOf(claims.get("email"));
+        String authorities = String.valueOf(claims.get("authorities"));
+
+        return new UsernamePasswordAuthenticationToken(email, null,
+                AuthorityUtils.commaSeparatedStringToAuthorityList(authorities));
+    }
+
+    @Benchmark
+    public Authentication filter() throws Exception {
+        validator.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtTokenValidatorBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,40 @@
+package com.habibian.tweeterclone.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:schema-migration;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SchemaIndexVerifier.class)
+class SchemaMigrationTests {
+
+    @Autowired
+    private SchemaIndexVerifier schemaIndexVerifier;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migratedSchemaMatchesTheEntitiesAndMissingIndexesFailTheCheck() {
+        // The context started: the migrations ran, Hibernate validated them and every index was found
+        schemaIndexVerifier.verify();
+
+        jdbcTemplate.execute("DROP INDEX idx_tweets_user_created_at");
+
+        assertThatThrownBy(schemaIndexVerifier::verify)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("idx_tweets_user_created_at on tweets(user_id, created_at, id)");
+    }
+}
@@ -0,0 +1,71 @@
+package com.habibian.tweeterclone.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:timeline-entries;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class TimelineEntryRepositoryTests {
+
+    private static final long AUTHOR = 1L;
+    private static final long RETWEETER = 2L;
+    private static final long OTHER_RETWEETER = 3L;
+    private static final long FOLLOWS_RETWEETER = 4L;
+    private static final long FOLLOWS_AUTHOR_TOO = 5L;
+    private static final long FOLLOWS_OTHER_RETWEETER_TOO = 6L;
+    private static final long TWEET_ID = 100L;
+
+    @Autowired
+    private TimelineEntryRepository timelineEntryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void undoneRetweetIsRemovedOnlyFromTimelinesWithoutAnotherSource() {
+        for (long userId = AUTHOR; userId <= FOLLOWS_OTHER_RETWEETER_TOO; userId++) {
+            jdbcTemplate.update("INSERT INTO users (id, req_user, login_with_google, followers_count, " +
+                    "followings_count) VALUES (?, FALSE, FALSE, 0, 0)", userId);
+        }
+        jdbcTemplate.update("INSERT INTO tweets (id, user_id, path, depth, like_count, reply_count, retweet_count) " +
+                "VALUES (?, ?, '', 0, 0, 0, 1)", TWEET_ID, AUTHOR);
+        jdbcTemplate.update("INSERT INTO retweets (user_id, tweet_id, created_at) VALUES (?, ?, NOW())",
+                OTHER_RETWEETER, TWEET_ID);
+
+        follow(FOLLOWS_RETWEETER, RETWEETER);
+        follow(FOLLOWS_AUTHOR_TOO, RETWEETER);
+        follow(FOLLOWS_AUTHOR_TOO, AUTHOR);
+        follow(FOLLOWS_OTHER_RETWEETER_TOO, RETWEETER);
+        follow(FOLLOWS_OTHER_RETWEETER_TOO, OTHER_RETWEETER);
+
+        // The retweet of RETWEETER was fanned out and has already been deleted from the retweets table
+        for (long ownerId = AUTHOR; ownerId <= FOLLOWS_OTHER_RETWEETER_TOO; ownerId++) {
+            jdbcTemplate.update("INSERT INTO home_timeline (owner_id, tweet_id, created_at) VALUES (?, ?, NOW())",
+                    ownerId, TWEET_ID);
+        }
+
+        assertThat(timelineEntryRepository.deleteRetweetEntries(TWEET_ID, RETWEETER)).isEqualTo(2);
+
+        List<Long> owners = jdbcTemplate.queryForList(
+                "SELECT owner_id FROM home_timeline WHERE tweet_id = ? ORDER BY owner_id", Long.class, TWEET_ID);
+        assertThat(owners).containsExactly(AUTHOR, OTHER_RETWEETER, FOLLOWS_AUTHOR_TOO, FOLLOWS_OTHER_RETWEETER_TOO);
+    }
+
+    private void follow(long followerId, long followeeId) {
+        jdbcTemplate.update("INSERT INTO follows (follower_id, followee_id, created_at) VALUES (?, ?, NOW())",
+                followerId, followeeId);
+    }
+}
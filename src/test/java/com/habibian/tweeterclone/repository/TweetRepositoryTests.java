@@ -0,0 +1,134 @@
+package com.habibian.tweeterclone.repository;
+
+import com.habibian.tweeterclone.dto.TweetDTO;
+import com.habibian.tweeterclone.dto.ViewerState;
+import com.habibian.tweeterclone.dto.mapper.TweetDtoMapper;
+import com.habibian.tweeterclone.model.Like;
+import com.habibian.tweeterclone.model.Tweet;
+import com.habibian.tweeterclone.model.User;
+import com.habibian.tweeterclone.util.PaginationUtil;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class TweetRepositoryTests {
+
+    private static final int PAGE_SIZE = 50;
+    private static final int IMPORT_SIZE = 500;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TweetRepository tweetRepository;
+
+    @Autowired
+    private LikeRepository likeRepository;
+
+    @Autowired
+    private RetweetRepository retweetRepository;
+
+    @Test
+    void timelinePageIsRenderedWithBoundedNumberOfStatements() {
+        User viewer = persistUser("viewer");
+        LocalDateTime now = LocalDateTime.now();
+
+        // Oldest first, as tweet IDs are issued in creation order
+        for (int i = PAGE_SIZE - 1; i >= 0; i--) {
+            User author = persistUser("author" + i);
+            Tweet tweet = persistTweet(author, now.minusMinutes(i));
+
+            if (i % 2 == 0) {
+                Like like = new Like();
+                like.setUser(viewer);
+                like.setTweet(tweet);
+                like.setCreatedAt(now);
+                entityManager.persist(like);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Tweet> page = tweetRepository.findTimeline(PaginationUtil.limit(PAGE_SIZE));
+        Set<Long> tweetIds = page.stream().map(Tweet::getId).collect(Collectors.toSet());
+        ViewerState viewerState = new ViewerState(
+                likeRepository.findLikedTweetIds(viewer.getId(), tweetIds),
+                retweetRepository.findRetweetedTweetIds(viewer.getId(), tweetIds)
+        );
+        List<TweetDTO> tweetDTOS = TweetDtoMapper.toTweetDTOS(page, viewerState);
+
+        assertThat(tweetDTOS).hasSize(PAGE_SIZE);
+        assertThat(tweetDTOS).filteredOn(TweetDTO::isLiked).hasSize(PAGE_SIZE / 2);
+        assertThat(tweetDTOS.get(0).getUser().getFullname()).isEqualTo("author0");
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void importedTweetsAreInsertedInJdbcBatches() {
+        User author = persistUser("author");
+        LocalDateTime now = LocalDateTime.now();
+        entityManager.flush();
+
+        List<Tweet> tweets = new ArrayList<>();
+        for (int i = 0; i < IMPORT_SIZE; i++) {
+            Tweet tweet = new Tweet();
+            tweet.setContent("imported " + i);
+            tweet.setUser(author);
+            tweet.setIsTweet(true);
+            tweet.setIsReply(false);
+            tweet.setCreatedAt(now.minusMinutes(i));
+            tweets.add(tweet);
+        }
+
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        tweetRepository.saveAll(tweets);
+        tweetRepository.flush();
+
+        // One batched insert statement; the time-ordered ids are issued in memory, without sequence calls
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(tweetRepository.count()).isEqualTo(IMPORT_SIZE);
+    }
+
+    private User persistUser(String name) {
+        User user = new User();
+        user.setFullname(name);
+        user.setEmail(name + "@example.com");
+
+        return entityManager.persist(user);
+    }
+
+    private Tweet persistTweet(User author, LocalDateTime createdAt) {
+        Tweet tweet = new Tweet();
+        tweet.setContent("tweet by " + author.getFullname());
+        tweet.setUser(author);
+        tweet.setIsTweet(true);
+        tweet.setIsReply(false);
+        tweet.setCreatedAt(createdAt);
+
+        return entityManager.persist(tweet);
+    }
+}
@@ -0,0 +1,178 @@
+package com.habibian.tweeterclone.repository;
+
+import com.habibian.tweeterclone.cache.EntityCacheEvictor;
+import com.habibian.tweeterclone.cache.TimelineCache;
+import com.habibian.tweeterclone.cache.TweetCounterCache;
+import com.habibian.tweeterclone.exception.TweetException;
+import com.habibian.tweeterclone.exception.TweetNotFoundException;
+import com.habibian.tweeterclone.exception.UserException;
+import com.habibian.tweeterclone.model.Tweet;
+import com.habibian.tweeterclone.model.User;
+import com.habibian.tweeterclone.request.TweetReplyRequest;
+import com.habibian.tweeterclone.search.TweetSearchIndex;
+import com.habibian.tweeterclone.service.EngagementWriteBehindQueue;
+import com.habibian.tweeterclone.service.TimelineService;
+import com.habibian.tweeterclone.service.TweetService;
+import com.habibian.tweeterclone.service.TweetServiceImpl;
+import com.habibian.tweeterclone.util.PaginationUtil;
+import com.habibian.tweeterclone.util.TweetUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import({TweetServiceImpl.class, CounterRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TweetThreadRepositoryTests {
+
+    @Autowired
+    private TweetRepository tweetRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TweetService tweetService;
+
+    @MockBean
+    private EntityCacheEvictor entityCacheEvictor;
+
+    @MockBean
+    private TweetCounterCache tweetCounterCache;
+
+    @MockBean
+    private TimelineService timelineService;
+
+    @MockBean
+    private TimelineCache timelineCache;
+
+    @MockBean
+    private EngagementWriteBehindQueue engagementQueue;
+
+    @MockBean
+    private TweetSearchIndex tweetSearchIndex;
+
+    private User author;
+
+    // Each test builds its own conversation, and every query below is bounded to one conversation
+    @BeforeEach
+    void setUp() {
+        author = new User();
+        author.setFullname("author");
+        author.setEmail("author" + System.nanoTime() + "@example.com");
+        author = userRepository.save(author);
+    }
+
+    @Test
+    void descendantsAreNestedUnderTheirParentAndLimitedInDepth() throws UserException, TweetException {
+        Tweet root = persistRoot();
+        Tweet first = reply(root);
+        Tweet second = reply(root);
+        Tweet firstReply = reply(first);
+        Tweet firstReplyReply = reply(firstReply);
+        Tweet secondReply = reply(second);
+
+        // The path scan groups replies by parent; the service nests them
+        assertThat(ids(tweetRepository.findThreadDescendants(root.getId(), TweetUtil.descendantPathPrefix(root) + "%",
+                3, PaginationUtil.limit(10))))
+                .containsExactly(first.getId(), second.getId(), firstReply.getId(), firstReplyReply.getId(),
+                        secondReply.getId());
+        assertThat(ids(tweetService.findDescendants(root, 3, 10)))
+                .containsExactly(first.getId(), firstReply.getId(), firstReplyReply.getId(), second.getId(),
+                        secondReply.getId());
+        assertThat(ids(tweetService.findDescendants(root, 2, 10)))
+                .containsExactly(first.getId(), firstReply.getId(), second.getId(), secondReply.getId());
+
+        assertThat(ids(tweetService.findAncestors(firstReplyReply)))
+                .containsExactly(root.getId(), first.getId(), firstReply.getId());
+    }
+
+    @Test
+    void repliesBelowTheDepthCapKeepTheirParents() throws UserException, TweetException {
+        List<Tweet> chain = new ArrayList<>();
+        chain.add(persistRoot());
+        for (int depth = 1; depth <= TweetUtil.MAX_THREAD_DEPTH; depth++) {
+            chain.add(reply(chain.get(depth - 1)));
+        }
+        Tweet lastMaterialized = chain.get(TweetUtil.MAX_THREAD_DEPTH);
+        Tweet sibling = reply(chain.get(TweetUtil.MAX_THREAD_DEPTH - 1));
+        Tweet capped = reply(lastMaterialized);
+        Tweet cappedReply = reply(capped);
+
+        // The capped replies share the path of the last materialized level
+        assertThat(capped.getDepth()).isEqualTo(TweetUtil.MAX_THREAD_DEPTH);
+        assertThat(cappedReply.getPath()).isEqualTo(sibling.getPath());
+
+        List<Long> expectedAncestors = new ArrayList<>(ids(chain));
+        expectedAncestors.add(capped.getId());
+        assertThat(ids(tweetService.findAncestors(cappedReply))).containsExactlyElementsOf(expectedAncestors);
+
+        assertThat(ids(tweetService.findDescendants(chain.get(TweetUtil.MAX_THREAD_DEPTH - 1),
+                TweetUtil.MAX_THREAD_DEPTH, 10)))
+                .containsExactly(lastMaterialized.getId(), capped.getId(), cappedReply.getId(), sibling.getId());
+    }
+
+    @Test
+    void threadIsLimitedToTheMaximumNumberOfReplies() throws UserException, TweetException {
+        Tweet root = persistRoot();
+        List<Tweet> replies = new ArrayList<>();
+        for (int i = 0; i < TweetUtil.MAX_THREAD_REPLIES; i++) {
+            replies.add(reply(root));
+        }
+        reply(replies.get(0));
+
+        List<Tweet> descendants = tweetService.findDescendants(root, 3, TweetUtil.MAX_THREAD_REPLIES);
+
+        // The direct replies come first in the scan, so the limit never leaves a reply without its parent
+        assertThat(descendants).hasSize(TweetUtil.MAX_THREAD_REPLIES);
+        assertThat(ids(descendants)).containsExactlyElementsOf(ids(replies));
+    }
+
+    @Test
+    void repliesOfAMissingTweetAreNotFound() throws TweetException {
+        Tweet root = persistRoot();
+
+        assertThat(tweetService.findReplies(root.getId(), null, 10)).isEmpty();
+        assertThatThrownBy(() -> tweetService.findReplies(root.getId() + 1, null, 10))
+                .isInstanceOf(TweetNotFoundException.class);
+    }
+
+    private Tweet persistRoot() {
+        Tweet tweet = new Tweet();
+        tweet.setContent("root");
+        tweet.setUser(author);
+        tweet.setIsTweet(true);
+        tweet.setIsReply(false);
+        tweet.setCreatedAt(LocalDateTime.now());
+
+        return tweetRepository.save(tweet);
+    }
+
+    private Tweet reply(Tweet parent) throws UserException, TweetException {
+        TweetReplyRequest req = new TweetReplyRequest();
+        req.setContent("reply");
+        req.setTweetId(parent.getId());
+
+        return tweetService.createReply(req, author);
+    }
+
+    private static List<Long> ids(List<Tweet> tweets) {
+        return tweets.stream().map(Tweet::getId).toList();
+    }
+}
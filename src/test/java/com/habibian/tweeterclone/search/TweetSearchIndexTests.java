@@ -0,0 +1,44 @@
+package com.habibian.tweeterclone.search;
+
+import com.habibian.tweeterclone.model.Tweet;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TweetSearchIndexTests {
+
+    private final TweetSearchIndex index = new TweetSearchIndex(null);
+
+    @Test
+    void matchesEveryQueryTermAndPagesByDescendingId() {
+        index.index(tweet(1L, "Learning #Java with @ali", 1));
+        index.index(tweet(2L, "java streams are fun", 0));
+        index.index(tweet(3L, "Spring and Java", 0));
+        index.index(tweet(4L, "nothing to see here", 0));
+
+        assertThat(index.search("#java", null, 10).tweetIds()).containsExactly(1L);
+        assertThat(index.search("@ali java", null, 10).tweetIds()).containsExactly(1L);
+        assertThat(index.search("java", null, 10).tweetIds()).containsExactlyInAnyOrder(1L, 2L, 3L);
+
+        TweetSearchResult firstPage = index.search("java", null, 2);
+        assertThat(firstPage.tweetIds()).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(firstPage.lastScannedId()).isEqualTo(2L);
+
+        TweetSearchResult secondPage = index.search("java", firstPage.lastScannedId(), 2);
+        assertThat(secondPage.tweetIds()).containsExactly(1L);
+        assertThat(secondPage.lastScannedId()).isNull();
+
+        index.remove(1L);
+        assertThat(index.search("#java", null, 10).tweetIds()).isEmpty();
+    }
+
+    private static Tweet tweet(Long id, String content, int hoursAgo) {
+        Tweet tweet = new Tweet();
+        tweet.setId(id);
+        tweet.setContent(content);
+        tweet.setCreatedAt(LocalDateTime.now().minusHours(hoursAgo));
+        return tweet;
+    }
+}
@@ -0,0 +1,48 @@
+package com.habibian.tweeterclone.search;
+
+import com.habibian.tweeterclone.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserSearchIndexTests {
+
+    private final UserSearchIndex index = new UserSearchIndex(null);
+
+    @Test
+    void ranksExactNameMatchesFirstAndPagesAfterTheLastSortKey() {
+        index.index(user(1L, "Alice Smith", "alice@example.com", 5));
+        index.index(user(2L, "Ali Habibian", "ali@example.com", 1));
+        index.index(user(3L, "Alison Brown", "brown@example.com", 100));
+        index.index(user(4L, "Bob Stone", "bob@example.com", 1000));
+
+        assertThat(index.search("ali", null, 10).userIds()).containsExactly(2L, 3L, 1L);
+        assertThat(index.search("ali", null, 10).last()).isNull();
+        assertThat(index.search("ali smi", null, 10).userIds()).containsExactly(1L);
+        assertThat(index.search("bob@exa", null, 10).userIds()).containsExactly(4L);
+
+        UserSearchResult first = index.search("ali", null, 1);
+        assertThat(first.userIds()).containsExactly(2L);
+
+        UserSearchCursor after = UserSearchCursor.decode(first.last().encode());
+        assertThat(index.search("ali", after, 1).userIds()).containsExactly(3L);
+
+        index.index(user(2L, "Reza Habibian", "reza@example.com", 1));
+        assertThat(index.search("ali", null, 10).userIds()).containsExactly(3L, 1L);
+        assertThat(index.search("ali", after, 10).userIds()).containsExactly(3L, 1L);
+
+        index.remove(3L);
+        assertThat(index.search("ali", after, 10).userIds()).containsExactly(1L);
+    }
+
+    private static User user(Long id, String fullname, String email, int followersCount) {
+        User user = new User();
+        user.setId(id);
+        user.setFullname(fullname);
+        user.setEmail(email);
+        user.setFollowersCount(followersCount);
+        return user;
+    }
+}
@@ -0,0 +1,173 @@
+package com.habibian.tweeterclone.service;
+
+import com.habibian.tweeterclone.cache.EntityCacheEvictor;
+import com.habibian.tweeterclone.cache.TimelineCache;
+import com.habibian.tweeterclone.cache.TweetCounterCache;
+import com.habibian.tweeterclone.exception.WriteBackpressureException;
+import com.habibian.tweeterclone.repository.CounterRepository;
+import com.habibian.tweeterclone.service.EngagementWriteBehindQueue.Engagement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:write-behind;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect",
+        "tweeter.write-behind.enabled=true",
+        "tweeter.write-behind.batch-size=2",
+        "tweeter.write-behind.max-attempts=2",
+        // The tests flush the queue themselves; the scheduled flush would race with them
+        "tweeter.write-behind.flush-interval-ms=3600000"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({EngagementWriteBehindQueue.class, CounterRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EngagementWriteBehindQueueFlushTests {
+
+    private static final Long AUTHOR_ID = 1L;
+    private static final Long OTHER_ID = 2L;
+    private static final Long TWEET_ID = 100L;
+    private static final Long OTHER_TWEET_ID = 101L;
+
+    @Autowired
+    private EngagementWriteBehindQueue queue;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private EntityCacheEvictor entityCacheEvictor;
+
+    @MockBean
+    private TweetCounterCache tweetCounterCache;
+
+    @MockBean
+    private TimelineService timelineService;
+
+    @MockBean
+    private TimelineCache timelineCache;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM likes");
+        jdbcTemplate.update("DELETE FROM retweets");
+        jdbcTemplate.update("DELETE FROM tweets");
+        jdbcTemplate.update("DELETE FROM users");
+
+        for (Long userId : List.of(AUTHOR_ID, OTHER_ID)) {
+            jdbcTemplate.update("INSERT INTO users (id, req_user, login_with_google, followers_count, " +
+                    "followings_count) VALUES (?, FALSE, FALSE, 0, 0)", userId);
+        }
+        for (Long tweetId : List.of(TWEET_ID, OTHER_TWEET_ID)) {
+            jdbcTemplate.update("INSERT INTO tweets (id, user_id, path, depth, like_count, reply_count, " +
+                    "retweet_count) VALUES (?, ?, '', 0, 0, 0, 0)", tweetId, AUTHOR_ID);
+        }
+    }
+
+    @Test
+    void flushWritesRowsInBatchesAndCountsOnlyChangedRows() throws WriteBackpressureException {
+        storeLike(OTHER_ID, OTHER_TWEET_ID);
+
+        queue.toggle(Engagement.LIKE, AUTHOR_ID, TWEET_ID, () -> false);
+        queue.toggle(Engagement.LIKE, OTHER_ID, TWEET_ID, () -> false);
+        queue.toggle(Engagement.LIKE, OTHER_ID, OTHER_TWEET_ID, () -> true);
+        queue.toggle(Engagement.RETWEET, OTHER_ID, TWEET_ID, () -> false);
+
+        queue.flush();
+
+        assertThat(count("likes", TWEET_ID)).isEqualTo(2);
+        assertThat(count("likes", OTHER_TWEET_ID)).isZero();
+        assertThat(count("retweets", TWEET_ID)).isEqualTo(1);
+        assertThat(counter("like_count", TWEET_ID)).isEqualTo(2);
+        assertThat(counter("like_count", OTHER_TWEET_ID)).isZero();
+        assertThat(counter("retweet_count", TWEET_ID)).isEqualTo(1);
+        verify(timelineService).fanOutRetweet(eq(TWEET_ID), eq(OTHER_ID), any());
+
+        // Another instance already stored this like: the insert is ignored and not counted again
+        storeLike(AUTHOR_ID, OTHER_TWEET_ID);
+        queue.toggle(Engagement.LIKE, AUTHOR_ID, OTHER_TWEET_ID, () -> false);
+        queue.flush();
+
+        assertThat(count("likes", OTHER_TWEET_ID)).isEqualTo(1);
+        assertThat(counter("like_count", OTHER_TWEET_ID)).isEqualTo(1);
+
+        queue.toggle(Engagement.RETWEET, OTHER_ID, TWEET_ID, () -> true);
+        queue.flush();
+
+        assertThat(counter("retweet_count", TWEET_ID)).isZero();
+        verify(timelineService).removeRetweet(TWEET_ID, OTHER_ID);
+    }
+
+    @Test
+    void failedBatchIsVisibleWhileFlushingThenRequeuedAndFinallyDropped() throws WriteBackpressureException {
+        doAnswer(invocation -> {
+            Set<Long> retweeted = new HashSet<>();
+            queue.overlay(Engagement.RETWEET, OTHER_ID, List.of(TWEET_ID), retweeted);
+            assertThat(retweeted).containsExactly(TWEET_ID);
+            throw new IllegalStateException("fan-out failed");
+        }).when(timelineService).fanOutRetweet(eq(TWEET_ID), eq(OTHER_ID), any());
+
+        queue.toggle(Engagement.RETWEET, OTHER_ID, TWEET_ID, () -> false);
+        queue.flush();
+
+        // The failed retweet is re-queued, so it stays visible to its author
+        assertThat(count("retweets", TWEET_ID)).isZero();
+        Set<Long> pending = new HashSet<>();
+        queue.overlay(Engagement.RETWEET, OTHER_ID, List.of(TWEET_ID), pending);
+        assertThat(pending).containsExactly(TWEET_ID);
+
+        doNothing().when(timelineService).fanOutRetweet(eq(TWEET_ID), eq(OTHER_ID), any());
+        queue.flush();
+
+        assertThat(count("retweets", TWEET_ID)).isEqualTo(1);
+        assertThat(counter("retweet_count", TWEET_ID)).isEqualTo(1);
+
+        doThrow(new IllegalStateException("fan-out failed"))
+                .when(timelineService).fanOutRetweet(eq(OTHER_TWEET_ID), eq(OTHER_ID), any());
+        queue.toggle(Engagement.RETWEET, OTHER_ID, OTHER_TWEET_ID, () -> false);
+        queue.flush();
+        queue.flush();
+
+        // Dropped after max-attempts failed writes: nothing is pending or stored any more
+        assertThat(count("retweets", OTHER_TWEET_ID)).isZero();
+        Set<Long> retweeted = new HashSet<>();
+        queue.overlay(Engagement.RETWEET, OTHER_ID, List.of(OTHER_TWEET_ID), retweeted);
+        assertThat(retweeted).isEmpty();
+    }
+
+    private void storeLike(Long userId, Long tweetId) {
+        jdbcTemplate.update("INSERT INTO likes (user_id, tweet_id, created_at) VALUES (?, ?, NOW())", userId, tweetId);
+        jdbcTemplate.update("UPDATE tweets SET like_count = like_count + 1 WHERE id = ?", tweetId);
+    }
+
+    private int count(String table, Long tweetId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE tweet_id = ?", Integer.class,
+                tweetId);
+    }
+
+    private int counter(String column, Long tweetId) {
+        return jdbcTemplate.queryForObject("SELECT " + column + " FROM tweets WHERE id = ?", Integer.class, tweetId);
+    }
+}
@@ -0,0 +1,66 @@
+package com.habibian.tweeterclone.service;
+
+import com.habibian.tweeterclone.cache.TimelineCache;
+import com.habibian.tweeterclone.exception.WriteBackpressureException;
+import com.habibian.tweeterclone.repository.CounterRepository;
+import com.habibian.tweeterclone.service.EngagementWriteBehindQueue.Engagement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class EngagementWriteBehindQueueTests {
+
+    private static final Long USER_ID = 1L;
+
+    private EngagementWriteBehindQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        queue = new EngagementWriteBehindQueue(mock(NamedParameterJdbcTemplate.class), mock(TransactionTemplate.class),
+                mock(CounterRepository.class), mock(TimelineService.class), mock(TimelineCache.class));
+        ReflectionTestUtils.setField(queue, "enabled", true);
+        ReflectionTestUtils.setField(queue, "capacity", 2);
+        ReflectionTestUtils.setField(queue, "batchSize", 1000);
+    }
+
+    @Test
+    void repeatedTapsCollapseAndAreVisibleToTheirAuthor() throws WriteBackpressureException {
+        assertThat(queue.toggle(Engagement.LIKE, USER_ID, 10L, () -> false)).isTrue();
+        assertThat(queue.toggle(Engagement.RETWEET, USER_ID, 11L, () -> true)).isFalse();
+
+        Set<Long> liked = new HashSet<>();
+        queue.overlay(Engagement.LIKE, USER_ID, List.of(10L, 11L), liked);
+        Set<Long> retweeted = new HashSet<>(Set.of(11L));
+        queue.overlay(Engagement.RETWEET, USER_ID, List.of(10L, 11L), retweeted);
+        assertThat(liked).containsExactly(10L);
+        assertThat(retweeted).isEmpty();
+
+        // Undoing a pending tap cancels it without reading the database again
+        assertThat(queue.toggle(Engagement.LIKE, USER_ID, 10L, () -> {
+            throw new AssertionError("pending state must be used");
+        })).isFalse();
+
+        liked.clear();
+        queue.overlay(Engagement.LIKE, USER_ID, List.of(10L), liked);
+        assertThat(liked).isEmpty();
+    }
+
+    @Test
+    void fullQueueRejectsNewTaps() throws WriteBackpressureException {
+        queue.toggle(Engagement.LIKE, USER_ID, 10L, () -> false);
+        queue.toggle(Engagement.LIKE, USER_ID, 11L, () -> false);
+
+        assertThatThrownBy(() -> queue.toggle(Engagement.LIKE, USER_ID, 12L, () -> false))
+                .isInstanceOf(WriteBackpressureException.class);
+    }
+}
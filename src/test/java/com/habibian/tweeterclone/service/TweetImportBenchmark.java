@@ -0,0 +1,117 @@
+package com.habibian.tweeterclone.service;
+
+import com.habibian.tweeterclone.model.*;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of importing 1000 tweets, against an in-memory H2 database in MySQL mode.
+ * <p>
+ * {@code perRowSaves} saves each tweet in its own transaction, as creating the tweets one by one does;
+ * {@code chunkedBatchInserts} saves them the way {@link TweetServiceImpl#importTweets} does, in one
+ * transaction per chunk sent as JDBC insert batches, flushing and clearing the session after each chunk.
+ * H2 runs in process, so the gap on MySQL, where every statement and commit is a network round trip,
+ * is larger than measured here.
+ * <p>
+ * Run {@link #main(String[])} from the test classpath after {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TweetImportBenchmark {
+
+    private static final int TWEETS = 1000;
+    private static final int CHUNK_SIZE = 100;
+
+    private SessionFactory sessionFactory;
+    private User author;
+
+    @Setup
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(User.class)
+                .addAnnotatedClass(Tweet.class)
+                .addAnnotatedClass(Like.class)
+                .addAnnotatedClass(Retweet.class)
+                .addAnnotatedClass(Follow.class)
+                .addAnnotatedClass(TimelineEntry.class)
+                .setProperty(AvailableSettings.URL, "jdbc:h2:mem:import-benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.USER, "sa")
+                .setProperty(AvailableSettings.PASS, "")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, "false")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, String.valueOf(CHUNK_SIZE))
+                .setProperty(AvailableSettings.ORDER_INSERTS, "true")
+                .buildSessionFactory();
+
+        author = new User();
+        author.setFullname("importer");
+        author.setEmail("importer@example.com");
+        sessionFactory.inTransaction(session -> session.persist(author));
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public int perRowSaves() {
+        for (Tweet tweet : newTweets()) {
+            sessionFactory.inTransaction(session -> session.persist(tweet));
+        }
+        return TWEETS;
+    }
+
+    @Benchmark
+    public int chunkedBatchInserts() {
+        List<Tweet> tweets = newTweets();
+
+        for (int from = 0; from < tweets.size(); from += CHUNK_SIZE) {
+            List<Tweet> chunk = tweets.subList(from, Math.min(from + CHUNK_SIZE, tweets.size()));
+            sessionFactory.inTransaction(session -> {
+                chunk.forEach(session::persist);
+                session.flush();
+                session.clear();
+            });
+        }
+        return TWEETS;
+    }
+
+    private List<Tweet> newTweets() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Tweet> tweets = new ArrayList<>(TWEETS);
+
+        for (int i = 0; i < TWEETS; i++) {
+            Tweet tweet = new Tweet();
+            tweet.setContent("imported " + i);
+            tweet.setUser(author);
+            tweet.setIsTweet(true);
+            tweet.setIsReply(false);
+            tweet.setCreatedAt(now.minusMinutes(i));
+            tweets.add(tweet);
+        }
+        return tweets;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(TweetImportBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,71 @@
+package com.habibian.tweeterclone.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnowflakeIdGeneratorTests {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 100_000;
+
+    @Test
+    void concurrentIdsAreUniqueAndIncreasingPerThread() throws InterruptedException {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7, 1000);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        AtomicLong outOfOrder = new AtomicLong();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            executor.execute(() -> {
+                long previous = 0;
+                for (int i = 0; i < IDS_PER_THREAD; i++) {
+                    long id = generator.nextId();
+                    if (id <= previous) {
+                        outOfOrder.incrementAndGet();
+                    }
+                    ids.add(id);
+                    previous = id;
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+
+        assertThat(ids).hasSize(THREADS * IDS_PER_THREAD);
+        assertThat(outOfOrder).hasValue(0);
+    }
+
+    @Test
+    void idsCarryTheirTimestampAndSurviveSmallClockSkew() {
+        long start = SnowflakeIdGenerator.EPOCH.toEpochMilli() + 1_000_000;
+        AtomicLong clock = new AtomicLong(start);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, 100, clock::get);
+
+        long first = generator.nextId();
+        assertThat(SnowflakeIdGenerator.timestampOf(first).toEpochMilli()).isEqualTo(start);
+
+        clock.set(start - 50); // Within the maximum skew: keeps counting on the last millisecond
+        assertThat(generator.nextId()).isGreaterThan(first);
+
+        clock.set(start - 500);
+        assertThatThrownBy(generator::nextId).isInstanceOf(IllegalStateException.class);
+
+        clock.set(start + 1);
+        assertThat(SnowflakeIdGenerator.timestampOf(generator.nextId()).toEpochMilli()).isEqualTo(start + 1);
+    }
+
+    @Test
+    void nodeIdMustFitItsBits() {
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1, 1000))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}